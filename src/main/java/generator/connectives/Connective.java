@@ -1,6 +1,7 @@
 package generator.connectives;
 
 import generator.formula.Formula;
+import generator.formula.LevelCache;
 import generator.formula.TableauFormula;
 import lombok.Getter;
 import lombok.Setter;
@@ -9,7 +10,9 @@ import solver.Tableau;
 
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * The abstract super class implementing the methods for all connectives.
@@ -50,11 +53,61 @@ public abstract class Connective implements Serializable {
     public abstract void applyNegatedRule(Tableau tableau, Branch branch, TableauFormula formula);
 
     /**
-     * This method generates all possible formulas by combining older (less complex) formulas with a connective.
-     * @param nrConnectives The number of connectives of the generated formulas to store the formulas in the
-     *                      corresponding file.
-     * @return A list containing all newly generated formulas.
+     * Getter for the kind of rule that gets applied to a formula with this main connective.
+     * @return The rule class of the connective.
      */
-    public abstract ArrayList<Formula> generateAllFormulas(int nrConnectives);
+    public abstract RuleClass getRuleClass();
+
+    /**
+     * Getter for the kind of rule that gets applied to the negation of a formula with this main connective.
+     * @return The rule class of the negated connective.
+     */
+    public abstract RuleClass getNegatedRuleClass();
+
+    /**
+     * Getter for the number of splits of the formulas that get generated with a connective. Every split can be
+     * generated on its own (see {@link #generateFormulas(int, int, LevelCache)}).
+     * @param nrConnectives The number of connectives of the formulas that the generated formulas are made of.
+     * @return The number of splits.
+     */
+    public abstract int getNrSplits(int nrConnectives);
+
+    /**
+     * This method enumerates a single split of the formulas that can be made by combining older (less complex) formulas
+     * with a connective. The formulas are generated lazily while the iterator is consumed.
+     * @param nrConnectives The number of connectives of the formulas that the generated formulas are made of.
+     * @param split The index of the split that gets generated.
+     * @param levels The cache of the formulas of the previous levels that is shared by all connectives.
+     * @return An iterator over the newly generated formulas of the split.
+     */
+    public abstract Iterator<Formula> generateFormulas(int nrConnectives, int split, LevelCache levels);
+
+    /**
+     * This method enumerates all possible formulas that can be made by combining older (less complex) formulas with a
+     * connective, split after split. The formulas are generated lazily while the iterator is consumed.
+     * @param nrConnectives The number of connectives of the formulas that the generated formulas are made of.
+     * @param levels The cache of the formulas of the previous levels that is shared by all connectives.
+     * @return An iterator over all newly generated formulas.
+     */
+    public Iterator<Formula> generateAllFormulas(int nrConnectives, LevelCache levels) {
+        return new Iterator<>() {
+            private int split = 0;
+            private Iterator<Formula> formulas = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!formulas.hasNext() && split < getNrSplits(nrConnectives)) {
+                    formulas = generateFormulas(nrConnectives, split++, levels);
+                }
+                return formulas.hasNext();
+            }
+
+            @Override
+            public Formula next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return formulas.next();
+            }
+        };
+    }
 
 }
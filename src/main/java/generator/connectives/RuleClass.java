@@ -0,0 +1,50 @@
+package generator.connectives;
+
+import generator.connectives.unary.Negation;
+import generator.tree.Node;
+
+/**
+ * An enumeration of the kinds of tableau rules. Every connective knows the kind of rule that gets applied to a formula
+ * with it as its main connective and to the negation of such a formula, so the kind of rule of a formula on a tableau
+ * can be looked up from its root without inspecting (or printing) the rest of the formula.
+ */
+public enum RuleClass {
+    /**
+     * A propositional atom or a negated propositional atom, no rule gets applied.
+     */
+    LITERAL,
+    /**
+     * A double negation, which gets removed.
+     */
+    DOUBLE_NEGATION,
+    /**
+     * A rule that adds its formulas to the same branch, e.g. for a conjunction or a negated disjunction.
+     */
+    ALPHA,
+    /**
+     * A rule that forks the branch, e.g. for a disjunction or a negated conjunction.
+     */
+    BETA,
+    /**
+     * A rule that adds its formula to all states reachable by an agent, e.g. for a belief or a negated possibility.
+     */
+    UNIVERSAL,
+    /**
+     * A rule that introduces a new state, e.g. for a possibility or a negated belief.
+     */
+    EXISTENTIAL;
+
+    /**
+     * A method that classifies the rule that gets applied to a formula. A negation is classified by the negated rule of
+     * the main connective of its operand.
+     * @param root The root of the formula.
+     * @return The kind of rule of the formula.
+     */
+    public static RuleClass of(Node root) {
+        if (root.isLeaf()) return LITERAL;
+        Connective connective = (Connective) root.getValue();
+        if (!(connective instanceof Negation)) return connective.getRuleClass();
+        Node operand = root.getLeft();
+        return operand.isLeaf() ? LITERAL : ((Connective) operand.getValue()).getNegatedRuleClass();
+    }
+}
@@ -0,0 +1,18 @@
+package generator.connectives;
+
+/**
+ * An interface for the connectives whose truth value only depends on the truth values of their operands, which are all
+ * connectives except for the modal operators. Such connectives can be evaluated with a truth table (see
+ * {@link solver.TruthTable}).
+ */
+public interface TruthFunctional {
+
+    /**
+     * This method evaluates the connective for many valuations at once: every bit of the arguments and the result
+     * stands for one valuation of the propositional atoms.
+     * @param left The truth values of the left operand, one bit per valuation.
+     * @param right The truth values of the right operand, one bit per valuation, ignored for unary connectives.
+     * @return The truth values of the formula with the connective, one bit per valuation.
+     */
+    int evaluate(int left, int right);
+}
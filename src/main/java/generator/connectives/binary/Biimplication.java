@@ -1,12 +1,9 @@
 package generator.connectives.binary;
 
-import generator.formula.Complexity;
-import generator.formula.Formula;
 import generator.formula.TableauFormula;
 import generator.tree.ConnectiveNode;
 import generator.tree.Node;
-import generator.tree.Tree;
-import generator.connectives.unary.Negation;
+import generator.connectives.RuleClass;
 import solver.Branch;
 import solver.Tableau;
 
@@ -29,70 +26,71 @@ public class Biimplication extends BinarySymmetricConnective implements Serializ
     }
 
     @Override
-    public synchronized void applyRule(Tableau tableau, Branch branch, TableauFormula formula) {
+    public void applyRule(Tableau tableau, Branch branch, TableauFormula formula) {
         Node leftNode = formula.getFormulaTree().getRoot().getLeft();
         Node rightNode = formula.getFormulaTree().getRoot().getRight();
 
-        Complexity childComplexity = new Complexity(formula.getComplexity().getModalDepth() - 1,
-                formula.getComplexity().getNrConnectives() - 1);
-
-        TableauFormula leftChild = new TableauFormula(new Tree(leftNode), formula.getState(),
-                formula.getLength() - this.length + 1, childComplexity, formula.getAgents());
-        TableauFormula negatedLeftChild = new TableauFormula(new Formula(new Negation(), leftChild), formula.getState());
-
-        TableauFormula rightChild = new TableauFormula(new Tree(rightNode), formula.getState(),
-                formula.getLength() - this.length + 1, childComplexity, formula.getAgents());
-        TableauFormula negatedRightChild = new TableauFormula(new Formula(new Negation(), rightChild), formula.getState());
+        TableauFormula leftChild = new TableauFormula(leftNode, formula.getState());
+        TableauFormula rightChild = new TableauFormula(rightNode, formula.getState());
 
         Branch rightBranch = new Branch(branch);
-        tableau.addBranch(rightBranch);
 
-        branch.getFormulasOnBranch().add(leftChild);
-        branch.getFormulasOnBranch().add(rightChild);
-        rightBranch.getNegatedFormulasOnBranch().add(leftChild);
-        rightBranch.getNegatedFormulasOnBranch().add(rightChild);
+        branch.addFormulaOnBranch(leftChild);
+        branch.addFormulaOnBranch(rightChild);
+        rightBranch.addNegatedFormulaOnBranch(leftChild);
+        rightBranch.addNegatedFormulaOnBranch(rightChild);
 
         if (leftNode instanceof ConnectiveNode) {
             branch.addFormula(leftChild);
-            rightBranch.addFormula(negatedLeftChild);
+            rightBranch.addFormula(negatedOperand(leftNode, formula));
         }
         if (rightNode instanceof ConnectiveNode) {
             branch.addFormula(rightChild);
-            rightBranch.addFormula(negatedRightChild);
+            rightBranch.addFormula(negatedOperand(rightNode, formula));
         }
+
+        branch.addForkedBranch(rightBranch);
     }
 
     @Override
-    public synchronized void applyNegatedRule(Tableau tableau, Branch branch, TableauFormula formula) {
+    public void applyNegatedRule(Tableau tableau, Branch branch, TableauFormula formula) {
         Node leftNode = formula.getFormulaTree().getRoot().getLeft();
         Node rightNode = formula.getFormulaTree().getRoot().getRight();
 
-        Complexity childComplexity = new Complexity(formula.getComplexity().getModalDepth() - 1,
-                formula.getComplexity().getNrConnectives() - 1);
-
-        TableauFormula leftChild = new TableauFormula(new Tree(leftNode), formula.getState(),
-                formula.getLength() - this.length + 1, childComplexity, formula.getAgents());
-        TableauFormula negatedLeftChild = new TableauFormula(new Formula(new Negation(), leftChild), formula.getState());
-
-        TableauFormula rightChild = new TableauFormula(new Tree(rightNode), formula.getState(),
-                formula.getLength() - this.length + 1, childComplexity, formula.getAgents());
-        TableauFormula negatedRightChild = new TableauFormula(new Formula(new Negation(), rightChild), formula.getState());
+        TableauFormula leftChild = new TableauFormula(leftNode, formula.getState());
+        TableauFormula rightChild = new TableauFormula(rightNode, formula.getState());
 
         Branch rightBranch = new Branch(branch);
-        tableau.addBranch(rightBranch);
 
-        branch.addFormula(branch.getFormulasOnBranch(), leftChild);
-        branch.addFormula(branch.getNegatedFormulasOnBranch(), rightChild);
-        rightBranch.addFormula(rightBranch.getNegatedFormulasOnBranch(), leftChild);
-        rightBranch.addFormula(rightBranch.getFormulasOnBranch(), rightChild);
+        branch.addFormulaOnBranch(leftChild);
+        branch.addNegatedFormulaOnBranch(rightChild);
+        rightBranch.addNegatedFormulaOnBranch(leftChild);
+        rightBranch.addFormulaOnBranch(rightChild);
 
         if (leftNode instanceof ConnectiveNode) {
             branch.addFormula(leftChild);
-            rightBranch.addFormula(negatedLeftChild);
+            rightBranch.addFormula(negatedOperand(leftNode, formula));
         }
         if (rightNode instanceof ConnectiveNode) {
-            branch.addFormula(negatedRightChild);
+            branch.addFormula(negatedOperand(rightNode, formula));
             rightBranch.addFormula(rightChild);
         }
+
+        branch.addForkedBranch(rightBranch);
+    }
+
+    @Override
+    public int evaluate(int left, int right) {
+        return ~(left ^ right);
+    }
+
+    @Override
+    public RuleClass getRuleClass() {
+        return RuleClass.BETA;
+    }
+
+    @Override
+    public RuleClass getNegatedRuleClass() {
+        return RuleClass.BETA;
     }
 }
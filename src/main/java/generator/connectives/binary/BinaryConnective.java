@@ -1,9 +1,12 @@
 package generator.connectives.binary;
 
 import generator.formula.Formula;
+import generator.formula.LevelCache;
 import generator.formula.TableauFormula;
 import generator.connectives.Connective;
-import io.Serializer;
+import generator.connectives.TruthFunctional;
+import generator.tree.Node;
+import generator.tree.NodeFactory;
 import lombok.Getter;
 import lombok.Setter;
 import solver.Branch;
@@ -12,13 +15,17 @@ import solver.Tableau;
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * This class implements the methods for binary connectives.
  */
 @Getter
 @Setter
-public abstract class BinaryConnective extends Connective implements Serializable {
+public abstract class BinaryConnective extends Connective implements TruthFunctional, Serializable {
 
     @Serial
     private static final long serialVersionUID = 3L;
@@ -30,6 +37,12 @@ public abstract class BinaryConnective extends Connective implements Serializabl
 
     private final int modalDepth = 0;
 
+    /**
+     * The number of formulas of the first operand level that are decoded and kept in memory at once while combining
+     * them with the formulas of the second operand level.
+     */
+    private static final int BLOCK_SIZE = 4096;
+
     /**
      * Constructor of the binary connective.
      * @param symbol The printed symbol for the connective.
@@ -45,19 +58,146 @@ public abstract class BinaryConnective extends Connective implements Serializabl
     public abstract void applyNegatedRule(Tableau tableau, Branch branch, TableauFormula formula);
 
     @Override
-    public ArrayList<Formula> generateAllFormulas(int nrConnectives) {
-        ArrayList<Formula> newFormulas = new ArrayList<>();
-        for (int i = 0; i <= nrConnectives; i++) {
-            ArrayList<Formula> firstFormulas = Serializer.loadFormulas(i + "_nr_connectives.ser");
-            ArrayList<Formula> secondFormulas = Serializer.loadFormulas((nrConnectives - i) + "_nr_connectives.ser");
-            if (firstFormulas != null && secondFormulas != null) {
-                for (Formula formula1 : firstFormulas) {
-                    for (Formula formula2 : secondFormulas) {
-                        newFormulas.add(new Formula(this, formula1, formula2));
+    public abstract int evaluate(int left, int right);
+
+    /**
+     * This method creates the negation of an operand of a formula in the state of the formula, which gets added to a
+     * branch if the operand is not an atom.
+     * @param operand The canonical node of the operand.
+     * @param formula The formula that contains the connective.
+     * @return The negated operand in the state of the formula.
+     */
+    protected static TableauFormula negatedOperand(Node operand, TableauFormula formula) {
+        return new TableauFormula(NodeFactory.negation(operand), formula.getState());
+    }
+
+    /**
+     * The formulas of a binary connective are split by the number of connectives of the first operand.
+     * @param nrConnectives The number of connectives of the formulas that the generated formulas are made of.
+     * @return The number of splits.
+     */
+    @Override
+    public int getNrSplits(int nrConnectives) {
+        return nrConnectives + 1;
+    }
+
+    /**
+     * This method enumerates a split of the formulas by combining older formulas with the binary connective, the first
+     * operands have as many connectives as the index of the split. Levels that do not fit into the level cache are
+     * read through memory-mapped lists.
+     * @param nrConnectives The number of connectives of the formulas that the generated formulas are made of.
+     * @param split The number of connectives of the first operands.
+     * @param levels The cache of the formulas of the previous levels that is shared by all connectives.
+     * @return An iterator over the newly generated formulas of the split.
+     */
+    @Override
+    public Iterator<Formula> generateFormulas(int nrConnectives, int split, LevelCache levels) {
+        List<Formula> firstFormulas = levels.get(split);
+        List<Formula> secondFormulas = levels.get(nrConnectives - split);
+        if (firstFormulas == null || secondFormulas == null) return Collections.emptyIterator();
+        return new SplitIterator(firstFormulas, levels.getLengthOrder(split), secondFormulas,
+                levels.getLengthOrder(nrConnectives - split));
+    }
+
+    /**
+     * An iterator that lazily combines the formulas of two levels with the binary connective. Both levels are walked
+     * from short to long formulas, so pairs that would be too long (see {@link Formula#isFinal(int)}) are skipped
+     * without decoding or building anything. The first operands are decoded in blocks, so that every formula of the
+     * second level is decoded once per block instead of once per first operand, and at most one block is kept in
+     * memory.
+     */
+    private class SplitIterator implements Iterator<Formula> {
+
+        private final List<Formula> firstFormulas;
+        private final LevelCache.LengthOrder firstOrder;
+        private final List<Formula> secondFormulas;
+        private final LevelCache.LengthOrder secondOrder;
+        private final ArrayList<Formula> block = new ArrayList<>(BLOCK_SIZE);
+        private int start = -BLOCK_SIZE;
+        private int k;
+        private int j;
+        private Formula secondFormula;
+        private Formula next;
+
+        /**
+         * Constructor of the iterator.
+         * @param firstFormulas The formulas of the level of the first operands.
+         * @param firstOrder The order of the first operands by length.
+         * @param secondFormulas The formulas of the level of the second operands.
+         * @param secondOrder The order of the second operands by length.
+         */
+        SplitIterator(List<Formula> firstFormulas, LevelCache.LengthOrder firstOrder, List<Formula> secondFormulas,
+                      LevelCache.LengthOrder secondOrder) {
+            this.firstFormulas = firstFormulas;
+            this.firstOrder = firstOrder;
+            this.secondFormulas = secondFormulas;
+            this.secondOrder = secondOrder;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) next = advance();
+            return next != null;
+        }
+
+        @Override
+        public Formula next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Formula formula = next;
+            next = null;
+            return formula;
+        }
+
+        /**
+         * A method that indicates whether the formula made of a first and a second operand fits the maximum length.
+         * @param first The position of the first operand in the length order.
+         * @param second The position of the second operand in the length order.
+         * @return A boolean variable indicating whether the formula fits.
+         */
+        private boolean fits(int first, int second) {
+            return !Formula.isFinal(firstOrder.getLengths()[first] + secondOrder.getLengths()[second] + getLength() + 2);
+        }
+
+        /**
+         * A method that generates the next formula, moving on to the next second operand or block when necessary. Since
+         * the operands are sorted by length, the remaining operands are skipped as soon as one of them does not fit.
+         * @return The next formula or null if all formulas were generated.
+         */
+        private Formula advance() {
+            while (true) {
+                if (secondFormula != null) {
+                    while (j < block.size() && fits(start + j, k)) {
+                        int first = start + j++;
+                        if (firstPartner(firstOrder.getIndices()[first]) <= secondOrder.getIndices()[k]) {
+                            return new Formula(BinaryConnective.this, block.get(first - start), secondFormula);
+                        }
+                    }
+                    secondFormula = null;
+                    k++;
+                }
+                if (!block.isEmpty() && k < secondOrder.size() && fits(start, k)) {
+                    secondFormula = secondFormulas.get(secondOrder.getIndices()[k]);
+                    j = 0;
+                } else {
+                    start += BLOCK_SIZE;
+                    if (start >= firstOrder.size() || secondOrder.size() == 0 || !fits(start, 0)) return null;
+                    block.clear();
+                    for (int first = start; first < Math.min(start + BLOCK_SIZE, firstOrder.size()); first++) {
+                        block.add(firstFormulas.get(firstOrder.getIndices()[first]));
                     }
+                    k = 0;
                 }
             }
         }
-        return newFormulas;
+    }
+
+    /**
+     * Getter for the index of the first formula of the second operand level that gets combined with a formula of the
+     * first operand level.
+     * @param firstIndex The index of the formula of the first operand level.
+     * @return The index of its first partner, 0 since every pair of formulas gets combined.
+     */
+    protected int firstPartner(int firstIndex) {
+        return 0;
     }
 }
@@ -1,14 +1,11 @@
 package generator.connectives.binary;
 
-import generator.formula.Formula;
 import generator.formula.TableauFormula;
-import io.Serializer;
 import solver.Branch;
 import solver.Tableau;
 
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.ArrayList;
 
 /**
  * This class implements the methods for binary symmetric connectives. The generation of formulas with these connectives
@@ -33,20 +30,14 @@ public abstract class BinarySymmetricConnective extends BinaryConnective impleme
     @Override
     public abstract void applyNegatedRule(Tableau tableau, Branch branch, TableauFormula formula);
 
+    /**
+     * Getter for the index of the first formula of the second operand level that gets combined with a formula of the
+     * first operand level. Formulas are only combined with partners at the same or a later index.
+     * @param firstIndex The index of the formula of the first operand level.
+     * @return The index of its first partner.
+     */
     @Override
-    public ArrayList<Formula> generateAllFormulas(int nrConnectives) {
-        ArrayList<Formula> newFormulas = new ArrayList<>();
-        for (int i = 0; i <= nrConnectives; i++) {
-            ArrayList<Formula> firstFormulas = Serializer.loadFormulas(i + "_nr_connectives.ser");
-            ArrayList<Formula> secondFormulas = Serializer.loadFormulas((nrConnectives - i) + "_nr_connectives.ser");
-            if (firstFormulas != null && secondFormulas != null) {
-                for (int j = 0; j < firstFormulas.size(); j++){
-                    for (int k = j; k < secondFormulas.size(); k++){
-                        newFormulas.add(new Formula(this, firstFormulas.get(j), secondFormulas.get(k)));
-                    }
-                }
-            }
-        }
-        return newFormulas;
+    protected int firstPartner(int firstIndex) {
+        return firstIndex;
     }
 }
@@ -1,12 +1,9 @@
 package generator.connectives.binary;
 
-import generator.formula.Complexity;
-import generator.formula.Formula;
 import generator.formula.TableauFormula;
 import generator.tree.ConnectiveNode;
 import generator.tree.Node;
-import generator.tree.Tree;
-import generator.connectives.unary.Negation;
+import generator.connectives.RuleClass;
 import solver.Branch;
 import solver.Tableau;
 
@@ -33,45 +30,47 @@ public class Conjunction extends BinarySymmetricConnective implements Serializab
         Node leftNode = formula.getFormulaTree().getRoot().getLeft();
         Node rightNode = formula.getFormulaTree().getRoot().getRight();
 
-        Complexity childComplexity = new Complexity(formula.getComplexity().getModalDepth() - 1,
-                formula.getComplexity().getNrConnectives() - 1);
+        TableauFormula leftChild = new TableauFormula(leftNode, formula.getState());
+        TableauFormula rightChild = new TableauFormula(rightNode, formula.getState());
 
-        TableauFormula leftChild = new TableauFormula(new Tree(leftNode), formula.getState(),
-                formula.getLength() - this.length + 1, childComplexity, formula.getAgents());
-
-        TableauFormula rightChild = new TableauFormula(new Tree(rightNode), formula.getState(),
-                formula.getLength() - this.length + 1, childComplexity, formula.getAgents());
-
-        branch.addFormula(branch.getFormulasOnBranch(), leftChild);
-        branch.addFormula(branch.getFormulasOnBranch(), rightChild);
+        branch.addFormulaOnBranch(leftChild);
+        branch.addFormulaOnBranch(rightChild);
 
         if (leftNode instanceof ConnectiveNode) branch.addFormula(leftChild);
         if (rightNode instanceof ConnectiveNode) branch.addFormula(rightChild);
     }
 
     @Override
-    public synchronized void applyNegatedRule(Tableau tableau, Branch branch, TableauFormula formula) {
+    public void applyNegatedRule(Tableau tableau, Branch branch, TableauFormula formula) {
         Node leftNode = formula.getFormulaTree().getRoot().getLeft();
         Node rightNode = formula.getFormulaTree().getRoot().getRight();
 
-        Complexity childComplexity = new Complexity(formula.getComplexity().getModalDepth() - 1,
-                formula.getComplexity().getNrConnectives() - 1);
+        TableauFormula leftChild = new TableauFormula(leftNode, formula.getState());
+        TableauFormula rightChild = new TableauFormula(rightNode, formula.getState());
+
+        Branch rightBranch = new Branch(branch);
 
-        TableauFormula leftChild = new TableauFormula(new Tree(leftNode), formula.getState(),
-                formula.getLength() - this.length + 1, childComplexity, formula.getAgents());
-        TableauFormula negatedLeftChild = new TableauFormula(new Formula(new Negation(), leftChild), formula.getState());
+        rightBranch.addNegatedFormulaOnBranch(rightChild);
+        branch.addNegatedFormulaOnBranch(leftChild);
 
-        TableauFormula rightChild = new TableauFormula(new Tree(rightNode), formula.getState(),
-                formula.getLength() - this.length + 1, childComplexity, formula.getAgents());
-        TableauFormula negatedRightChild = new TableauFormula(new Formula(new Negation(), rightChild), formula.getState());
+        if (leftNode instanceof ConnectiveNode) branch.addFormula(negatedOperand(leftNode, formula));
+        if (rightNode instanceof ConnectiveNode) rightBranch.addFormula(negatedOperand(rightNode, formula));
 
-        Branch rightBranch = new Branch(branch);
-        tableau.addBranch(rightBranch);
+        branch.addForkedBranch(rightBranch);
+    }
 
-        rightBranch.addFormula(rightBranch.getNegatedFormulasOnBranch(), rightChild);
-        branch.addFormula(branch.getNegatedFormulasOnBranch(), leftChild);
+    @Override
+    public int evaluate(int left, int right) {
+        return left & right;
+    }
+
+    @Override
+    public RuleClass getRuleClass() {
+        return RuleClass.ALPHA;
+    }
 
-        if (leftNode instanceof ConnectiveNode) branch.addFormula(negatedLeftChild);
-        if (rightNode instanceof ConnectiveNode) rightBranch.addFormula(negatedRightChild);
+    @Override
+    public RuleClass getNegatedRuleClass() {
+        return RuleClass.BETA;
     }
 }
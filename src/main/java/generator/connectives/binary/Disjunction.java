@@ -1,12 +1,9 @@
 package generator.connectives.binary;
 
-import generator.formula.Complexity;
-import generator.formula.Formula;
 import generator.formula.TableauFormula;
 import generator.tree.ConnectiveNode;
 import generator.tree.Node;
-import generator.tree.Tree;
-import generator.connectives.unary.Negation;
+import generator.connectives.RuleClass;
 import solver.Branch;
 import solver.Tableau;
 
@@ -29,27 +26,22 @@ public class Disjunction extends BinarySymmetricConnective implements Serializab
     }
 
     @Override
-    public synchronized void applyRule(Tableau tableau, Branch branch, TableauFormula formula) {
+    public void applyRule(Tableau tableau, Branch branch, TableauFormula formula) {
         Node leftNode = formula.getFormulaTree().getRoot().getLeft();
         Node rightNode = formula.getFormulaTree().getRoot().getRight();
 
-        Complexity childComplexity = new Complexity(formula.getComplexity().getModalDepth() - 1,
-                formula.getComplexity().getNrConnectives() - 1);
-
-        TableauFormula leftChild = new TableauFormula(new Tree(leftNode), formula.getState(),
-                formula.getLength() - this.length + 1, childComplexity, formula.getAgents());
-
-        TableauFormula rightChild = new TableauFormula(new Tree(rightNode), formula.getState(),
-                formula.getLength() - this.length + 1, childComplexity, formula.getAgents());
+        TableauFormula leftChild = new TableauFormula(leftNode, formula.getState());
+        TableauFormula rightChild = new TableauFormula(rightNode, formula.getState());
 
         Branch rightBranch = new Branch(branch);
-        tableau.addBranch(rightBranch);
 
-        rightBranch.addFormula(rightBranch.getFormulasOnBranch(), rightChild);
-        branch.addFormula(branch.getFormulasOnBranch(), leftChild);
+        rightBranch.addFormulaOnBranch(rightChild);
+        branch.addFormulaOnBranch(leftChild);
 
         if (leftNode instanceof ConnectiveNode) branch.addFormula(leftChild);
         if (rightNode instanceof ConnectiveNode) rightBranch.addFormula(rightChild);
+
+        branch.addForkedBranch(rightBranch);
     }
 
     @Override
@@ -57,21 +49,28 @@ public class Disjunction extends BinarySymmetricConnective implements Serializab
         Node leftNode = formula.getFormulaTree().getRoot().getLeft();
         Node rightNode = formula.getFormulaTree().getRoot().getRight();
 
-        Complexity childComplexity = new Complexity(formula.getComplexity().getModalDepth() - 1,
-                formula.getComplexity().getNrConnectives() - 1);
+        TableauFormula leftChild = new TableauFormula(leftNode, formula.getState());
+        TableauFormula rightChild = new TableauFormula(rightNode, formula.getState());
 
-        TableauFormula leftChild = new TableauFormula(new Tree(leftNode), formula.getState(),
-                formula.getLength() - this.length + 1, childComplexity, formula.getAgents());
-        TableauFormula negatedLeftChild = new TableauFormula(new Formula(new Negation(), leftChild), formula.getState());
+        branch.addNegatedFormulaOnBranch(leftChild);
+        branch.addNegatedFormulaOnBranch(rightChild);
+
+        if (leftNode instanceof ConnectiveNode) branch.addFormula(negatedOperand(leftNode, formula));
+        if (rightNode instanceof ConnectiveNode) branch.addFormula(negatedOperand(rightNode, formula));
+    }
 
-        TableauFormula rightChild = new TableauFormula(new Tree(rightNode), formula.getState(),
-                formula.getLength() - this.length + 1, childComplexity, formula.getAgents());
-        TableauFormula negatedRightChild = new TableauFormula(new Formula(new Negation(), rightChild), formula.getState());
+    @Override
+    public int evaluate(int left, int right) {
+        return left | right;
+    }
 
-        branch.addFormula(branch.getNegatedFormulasOnBranch(), leftChild);
-        branch.addFormula(branch.getNegatedFormulasOnBranch(), rightChild);
+    @Override
+    public RuleClass getRuleClass() {
+        return RuleClass.BETA;
+    }
 
-        if (leftNode instanceof ConnectiveNode) branch.addFormula(negatedLeftChild);
-        if (rightNode instanceof ConnectiveNode) branch.addFormula(negatedRightChild);
+    @Override
+    public RuleClass getNegatedRuleClass() {
+        return RuleClass.ALPHA;
     }
 }
@@ -1,14 +1,13 @@
 package generator.connectives.unary;
 
 import generator.formula.Agent;
-import generator.formula.Complexity;
-import generator.formula.Formula;
 import generator.formula.InfTableauFormula;
 import generator.formula.TableauFormula;
 import generator.tree.AtomNode;
 import generator.tree.ConnectiveNode;
 import generator.tree.Node;
-import generator.tree.Tree;
+import generator.tree.NodeFactory;
+import generator.connectives.RuleClass;
 import lombok.Getter;
 import lombok.Setter;
 import solver.Branch;
@@ -16,7 +15,7 @@ import solver.Tableau;
 
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.BitSet;
 
 /**
  * This class implements the methods for the belief operator.
@@ -41,62 +40,48 @@ public class Belief extends UnaryConnective implements Serializable {
         this.agent = agent;
     }
 
-    /**
-     * This method checks whether the list of formulas that can be re-applied already contains a specific formula.
-     * @param formulaList The list of formulas that can be re-applied.
-     * @param formula The formula that gets checked whether it is part of the formula list.
-     * @return Boolean variable indicating whether the formula is already part of the list.
-     */
-    public boolean containsFormula(ArrayList<InfTableauFormula> formulaList, TableauFormula formula){
-        for (TableauFormula tableauFormula : formulaList) {
-            if (tableauFormula.isEqual(formula)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     @Override
     public void applyRule(Tableau tableau, Branch branch, TableauFormula formula) {
+        BitSet successors = branch.getRelations().getSuccessors(agent, formula.getState());
+        branch.addInfFormula(new InfTableauFormula(formula, successors));
+        for (int state = successors.nextSetBit(0); state >= 0; state = successors.nextSetBit(state + 1))
+            applyRule(branch, formula, state);
+    }
 
-        if (!containsFormula(branch.getInfFormulas(), new InfTableauFormula(formula, agent.getRelations())))
-            branch.getInfFormulas().add(new InfTableauFormula(formula, agent.getRelations()));
-
+    /**
+     * This method applies the rule of the belief operator to a single state that the state of the formula relates to,
+     * e.g. to a state that got related to it after the rule was applied before.
+     * @param branch The branch to which the rule should be applied.
+     * @param formula The formula that contains the belief operator.
+     * @param state The state to which the rule gets applied.
+     */
+    public void applyRule(Branch branch, TableauFormula formula, int state) {
         Node leftNode = formula.getFormulaTree().getRoot().getLeft();
-
-        Complexity leftChildComplexity = new Complexity(formula.getComplexity().getModalDepth() - 1,
-                formula.getComplexity().getNrConnectives() - 1);
-        TableauFormula leftChild = new TableauFormula(new Tree(leftNode), formula.getState(),
-                formula.getLength() - 2, leftChildComplexity, formula.getAgents());
-
-        agent.getRelations().forEach(pair -> {
-            if (pair.getValue0().equals(formula.getState())){
-                leftChild.setState(pair.getValue1());
-                branch.addFormula(branch.getFormulasOnBranch(), leftChild);
-                if (leftNode instanceof ConnectiveNode) {
-                    if (!(leftNode.getValue() instanceof Negation) || !(leftNode.getLeft() instanceof AtomNode)){
-                        branch.addFormula(leftChild);
-                    }
-                }
-            }
-        });
+        boolean expandable = leftNode instanceof ConnectiveNode
+                && (!(leftNode.getValue() instanceof Negation) || !(leftNode.getLeft() instanceof AtomNode));
+        TableauFormula leftChild = new TableauFormula(leftNode, state);
+        branch.addFormulaOnBranch(leftChild);
+        if (expandable) branch.addFormula(leftChild);
     }
 
     @Override
     public void applyNegatedRule(Tableau tableau, Branch branch, TableauFormula formula) {
 
         Node leftNode = formula.getFormulaTree().getRoot().getLeft();
+        TableauFormula newFormula = new TableauFormula(NodeFactory.connective(new Possibility(agent),
+                NodeFactory.negation(leftNode), null), formula.getState());
 
-        Complexity leftChildComplexity = new Complexity(formula.getComplexity().getModalDepth() - 1,
-                formula.getComplexity().getNrConnectives() - 1);
-        TableauFormula leftChild = new TableauFormula(new Tree(leftNode), formula.getState(),
-                formula.getLength() - 2, leftChildComplexity, formula.getAgents());
+        branch.addFormulaOnBranch(newFormula);
+        branch.addFormula(newFormula);
+    }
 
-        TableauFormula newFormula = new TableauFormula(new Formula(new Possibility(agent),
-                new Formula(new Negation(), leftChild)), formula.getState());
-        newFormula.setComplexity(formula.getComplexity());
+    @Override
+    public RuleClass getRuleClass() {
+        return RuleClass.UNIVERSAL;
+    }
 
-        branch.addFormula(branch.getFormulasOnBranch(), newFormula);
-        branch.addFormula(newFormula);
+    @Override
+    public RuleClass getNegatedRuleClass() {
+        return RuleClass.EXISTENTIAL;
     }
 }
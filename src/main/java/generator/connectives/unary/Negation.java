@@ -1,10 +1,10 @@
 package generator.connectives.unary;
 
-import generator.formula.Complexity;
 import generator.formula.TableauFormula;
 import generator.tree.ConnectiveNode;
 import generator.tree.Node;
-import generator.tree.Tree;
+import generator.connectives.RuleClass;
+import generator.connectives.TruthFunctional;
 import lombok.Getter;
 import lombok.Setter;
 import solver.Branch;
@@ -18,7 +18,7 @@ import java.io.Serializable;
  */
 @Getter
 @Setter
-public class Negation extends UnaryConnective implements Serializable {
+public class Negation extends UnaryConnective implements TruthFunctional, Serializable {
 
     @Serial
     private static final long serialVersionUID = 9L;
@@ -39,12 +39,9 @@ public class Negation extends UnaryConnective implements Serializable {
     @Override
     public void applyRule(Tableau tableau, Branch branch, TableauFormula formula) {
         Node leftNode = formula.getFormulaTree().getRoot().getLeft();
-        Complexity leftChildComplexity = new Complexity(formula.getComplexity().getModalDepth() - 1,
-                formula.getComplexity().getNrConnectives() - 1);
-        TableauFormula leftChild = new TableauFormula(new Tree(leftNode), formula.getState(),
-                formula.getLength() - 1, leftChildComplexity, formula.getAgents());
+        TableauFormula leftChild = new TableauFormula(leftNode, formula.getState());
 
-        branch.addFormula(branch.getNegatedFormulasOnBranch(), leftChild);
+        branch.addNegatedFormulaOnBranch(leftChild);
 
         if (leftNode instanceof ConnectiveNode)
             ((ConnectiveNode) leftNode).getValue().applyNegatedRule(tableau, branch, leftChild);
@@ -53,14 +50,30 @@ public class Negation extends UnaryConnective implements Serializable {
     @Override
     public void applyNegatedRule(Tableau tableau, Branch branch, TableauFormula formula) {
         Node leftNode = formula.getFormulaTree().getRoot().getLeft();
-        Complexity leftChildComplexity = new Complexity(formula.getComplexity().getModalDepth() - 1,
-                formula.getComplexity().getNrConnectives() - 1);
 
-        TableauFormula leftChild = new TableauFormula(new Tree(leftNode), formula.getState(),
-                formula.getLength() - 1, leftChildComplexity, formula.getAgents());
-        branch.addFormula(branch.getFormulasOnBranch(), leftChild);
+        TableauFormula leftChild = new TableauFormula(leftNode, formula.getState());
+        branch.addFormulaOnBranch(leftChild);
 
         if (leftNode instanceof ConnectiveNode) branch.addFormula(leftChild);
     }
 
+    @Override
+    public int evaluate(int left, int right) {
+        return ~left;
+    }
+
+    /**
+     * Getter for the kind of rule of a negation, which depends on its operand (see {@link RuleClass#of}). A negation on
+     * its own is only classified as a literal.
+     * @return The rule class of a negated atom.
+     */
+    @Override
+    public RuleClass getRuleClass() {
+        return RuleClass.LITERAL;
+    }
+
+    @Override
+    public RuleClass getNegatedRuleClass() {
+        return RuleClass.DOUBLE_NEGATION;
+    }
 }
@@ -1,12 +1,11 @@
 package generator.connectives.unary;
 
 import generator.formula.Agent;
-import generator.formula.Complexity;
-import generator.formula.Formula;
 import generator.formula.TableauFormula;
 import generator.tree.ConnectiveNode;
 import generator.tree.Node;
-import generator.tree.Tree;
+import generator.tree.NodeFactory;
+import generator.connectives.RuleClass;
 import lombok.Getter;
 import lombok.Setter;
 import solver.Branch;
@@ -14,7 +13,6 @@ import solver.Tableau;
 
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.Collections;
 
 /**
  * This class implements the methods for the possibility operator.
@@ -43,34 +41,31 @@ public class Possibility extends UnaryConnective implements Serializable {
     public void applyRule(Tableau tableau, Branch branch, TableauFormula formula) {
         Node leftNode = formula.getFormulaTree().getRoot().getLeft();
 
-        Complexity leftChildComplexity = new Complexity(formula.getComplexity().getModalDepth() - 1,
-                formula.getComplexity().getNrConnectives() - 1);
-        TableauFormula leftChild = new TableauFormula(new Tree(leftNode), formula.getState(),
-                formula.getLength() - 2, leftChildComplexity, formula.getAgents());
+        int newState = branch.getRelations().addWorld();
+        branch.getRelations().addRelation(agent, formula.getState(), newState);
 
-        int newState = Collections.max(branch.getWorlds()) + 1;
-        agent.addRelation(formula.getState(), newState);
-        branch.getWorlds().add(newState);
-
-        leftChild.setState(newState);
-        branch.addFormula(branch.getFormulasOnBranch(), leftChild);
+        TableauFormula leftChild = new TableauFormula(leftNode, newState);
+        branch.addFormulaOnBranch(leftChild);
         if (leftNode instanceof ConnectiveNode) branch.addFormula(leftChild);
     }
 
     @Override
     public void applyNegatedRule(Tableau tableau, Branch branch, TableauFormula formula) {
         Node leftNode = formula.getFormulaTree().getRoot().getLeft();
+        TableauFormula newFormula = new TableauFormula(NodeFactory.connective(new Belief(agent),
+                NodeFactory.negation(leftNode), null), formula.getState());
 
-        Complexity leftChildComplexity = new Complexity(formula.getComplexity().getModalDepth() - 1,
-                formula.getComplexity().getNrConnectives() - 1);
-        TableauFormula leftChild = new TableauFormula(new Tree(leftNode), formula.getState(),
-                formula.getLength() - 2, leftChildComplexity, formula.getAgents());
+        branch.addFormulaOnBranch(newFormula);
+        branch.addFormula(newFormula);
+    }
 
-        TableauFormula newFormula = new TableauFormula(new Formula(new Belief(agent),
-                new Formula(new Negation(), leftChild)), formula.getState());
-        newFormula.setComplexity(formula.getComplexity());
+    @Override
+    public RuleClass getRuleClass() {
+        return RuleClass.EXISTENTIAL;
+    }
 
-        branch.addFormula(branch.getFormulasOnBranch(), newFormula);
-        branch.addFormula(newFormula);
+    @Override
+    public RuleClass getNegatedRuleClass() {
+        return RuleClass.UNIVERSAL;
     }
 }
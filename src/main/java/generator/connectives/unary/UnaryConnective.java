@@ -1,9 +1,9 @@
 package generator.connectives.unary;
 
 import generator.formula.Formula;
+import generator.formula.LevelCache;
 import generator.formula.TableauFormula;
 import generator.connectives.Connective;
-import io.Serializer;
 import lombok.Getter;
 import lombok.Setter;
 import solver.Branch;
@@ -11,7 +11,10 @@ import solver.Tableau;
 
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * This class implements the methods for unary connectives.
@@ -44,11 +47,32 @@ public abstract class UnaryConnective extends Connective implements Serializable
     @Override
     public abstract void applyNegatedRule(Tableau tableau, Branch branch, TableauFormula formula);
 
+    /**
+     * The formulas of a unary connective are generated in a single split.
+     * @param nrConnectives The number of connectives of the formulas that the generated formulas are made of.
+     * @return The number of splits, 1.
+     */
+    @Override
+    public int getNrSplits(int nrConnectives) {
+        return 1;
+    }
+
+    /**
+     * This method enumerates the formulas that can be made by adding the unary connective to older formulas. The older
+     * formulas are taken from short to long and the enumeration stops at the first formula that would get too long.
+     * @param nrConnectives The number of connectives of the formulas that the generated formulas are made of.
+     * @param split The index of the split, there is only one.
+     * @param levels The cache of the formulas of the previous levels that is shared by all connectives.
+     * @return An iterator over the newly generated formulas.
+     */
     @Override
-    public ArrayList<Formula> generateAllFormulas(int nrConnectives) {
-        ArrayList<Formula> newFormulas = new ArrayList<>();
-        ArrayList<Formula> formulas = Serializer.loadFormulas(nrConnectives + "_nr_connectives.ser");
-        if (formulas != null) for (Formula formula : formulas) newFormulas.add(new Formula(this, formula));
-        return newFormulas;
+    public Iterator<Formula> generateFormulas(int nrConnectives, int split, LevelCache levels) {
+        List<Formula> formulas = levels.get(nrConnectives);
+        LevelCache.LengthOrder lengthOrder = levels.getLengthOrder(nrConnectives);
+        if (formulas == null || lengthOrder == null) return Collections.emptyIterator();
+        return IntStream.range(0, lengthOrder.size())
+                .takeWhile(i -> !Formula.isFinal(lengthOrder.getLengths()[i] + getLength()))
+                .mapToObj(i -> new Formula(this, formulas.get(lengthOrder.getIndices()[i])))
+                .iterator();
     }
 }
\ No newline at end of file
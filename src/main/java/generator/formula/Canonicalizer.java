@@ -0,0 +1,166 @@
+package generator.formula;
+
+import generator.connectives.Connective;
+import generator.connectives.binary.BinarySymmetricConnective;
+import generator.connectives.unary.Belief;
+import generator.connectives.unary.Negation;
+import generator.connectives.unary.Possibility;
+import generator.tree.ConnectiveNode;
+import generator.tree.Node;
+import generator.tree.NodeFactory;
+import io.FormulaCodec;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A class that brings formulas into a canonical form, so formulas that only differ in an unimportant way are generated
+ * and solved only once. The operands of the commutative connectives (∧, ∨, ⇿) are ordered by a fixed structural order
+ * and, for the solver, the agents are renamed to the permutation of agents that gives the smallest formula.
+ */
+public class Canonicalizer {
+
+    private static final List<String> AGENTS = Agent.SYMBOLS;
+    private static final int[][] PERMUTATIONS = {{0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}};
+
+    /**
+     * The modal connectives of all agents by their printed symbol.
+     */
+    private static final HashMap<String, Connective> MODAL_CONNECTIVES = new HashMap<>();
+
+    static {
+        for (Connective connective : FormulaGenerator.createConnectives()) {
+            if (connective instanceof Belief || connective instanceof Possibility)
+                MODAL_CONNECTIVES.put(connective.getSymbol(), connective);
+        }
+    }
+
+    /**
+     * Private constructor, the canonicalizer only offers static methods.
+     */
+    private Canonicalizer() {}
+
+    /**
+     * A method that orders the operands of all commutative connectives of a formula.
+     * @param formula The formula that gets normalized.
+     * @return The normalized formula, the formula itself if it was normalized already.
+     */
+    public static Formula normalize(Formula formula) {
+        Node root = formula.getFormulaTree().getRoot();
+        Node normalized = normalize(root);
+        if (normalized == root) return formula;
+        return new Formula(normalized.getTree(), formula.getLength(), formula.getComplexity(), formula.getAgents());
+    }
+
+    /**
+     * A method that chooses the representative of a formula among all formulas that only differ from it by renaming
+     * the agents. The representative is the smallest normalized formula in the structural order.
+     * @param formula The formula whose representative is requested.
+     * @return The normalized formula with renamed agents.
+     */
+    public static Formula reduceAgents(Formula formula) {
+        Formula normalized = normalize(formula);
+        if (formula.getAgents().isEmpty()) return normalized;
+        Node smallest = normalized.getFormulaTree().getRoot();
+        int[] smallestPermutation = PERMUTATIONS[0];
+        for (int i = 1; i < PERMUTATIONS.length; i++) {
+            Node renamed = normalize(rename(normalized.getFormulaTree().getRoot(), PERMUTATIONS[i]));
+            if (compare(renamed, smallest) < 0) {
+                smallest = renamed;
+                smallestPermutation = PERMUTATIONS[i];
+            }
+        }
+        if (smallestPermutation == PERMUTATIONS[0]) return normalized;
+        ArrayList<Agent> agents = new ArrayList<>();
+        for (Agent agent : formula.getAgents()) agents.add(new Agent(AGENTS.get(smallestPermutation[index(agent)])));
+        return new Formula(smallest.getTree(), formula.getLength(), formula.getComplexity(), agents);
+    }
+
+    /**
+     * A method that indicates whether a formula contains two directly nested negations. Such a formula is equivalent
+     * to the formula without both negations, which has two connectives less and is generated before.
+     * @param formula The formula that gets checked.
+     * @return A boolean variable indicating whether the formula contains a double negation.
+     */
+    public static boolean hasDoubleNegation(Formula formula) {
+        return hasDoubleNegation(formula.getFormulaTree().getRoot());
+    }
+
+    /**
+     * A method that compares two nodes in a fixed structural order: first by the codes of their atoms or connectives
+     * (see {@link FormulaCodec}), then by their left and right children.
+     * @param node1 The first node.
+     * @param node2 The second node.
+     * @return A negative number, zero or a positive number if the first node is smaller, equal or larger.
+     */
+    public static int compare(Node node1, Node node2) {
+        if (node1 == node2) return 0;
+        int result = Integer.compare(FormulaCodec.code(node1), FormulaCodec.code(node2));
+        if (result != 0 || node1.isLeaf()) return result;
+        result = compare(node1.getLeft(), node2.getLeft());
+        if (result != 0 || node1.getRight() == null) return result;
+        return compare(node1.getRight(), node2.getRight());
+    }
+
+    /**
+     * A recursive method that orders the operands of the commutative connectives of a node and its children.
+     * @param node The node that gets normalized.
+     * @return The canonical normalized node, the node itself if it was normalized already.
+     */
+    private static Node normalize(Node node) {
+        if (node.isLeaf()) return node;
+        Node left = normalize(node.getLeft());
+        Node right = node.getRight() == null ? null : normalize(node.getRight());
+        Connective connective = ((ConnectiveNode) node).getValue();
+        if (connective instanceof BinarySymmetricConnective && compare(left, right) > 0) {
+            Node swap = left;
+            left = right;
+            right = swap;
+        }
+        if (left == node.getLeft() && right == node.getRight()) return node;
+        return NodeFactory.connective(connective, left, right);
+    }
+
+    /**
+     * A recursive method that renames the agents of the modal connectives of a node and its children.
+     * @param node The node whose agents get renamed.
+     * @param permutation The new index of every agent.
+     * @return The canonical node with renamed agents.
+     */
+    private static Node rename(Node node, int[] permutation) {
+        if (node.isLeaf()) return node;
+        Node left = rename(node.getLeft(), permutation);
+        Node right = node.getRight() == null ? null : rename(node.getRight(), permutation);
+        Connective connective = ((ConnectiveNode) node).getValue();
+        if (connective instanceof Belief belief) {
+            connective = MODAL_CONNECTIVES.get("B" + AGENTS.get(permutation[index(belief.getAgent())]));
+        } else if (connective instanceof Possibility possibility) {
+            connective = MODAL_CONNECTIVES.get("M" + AGENTS.get(permutation[index(possibility.getAgent())]));
+        }
+        return NodeFactory.connective(connective, left, right);
+    }
+
+    /**
+     * A recursive method that indicates whether a node or one of its children is a double negation.
+     * @param node The node that gets checked.
+     * @return A boolean variable indicating whether a double negation was found.
+     */
+    private static boolean hasDoubleNegation(Node node) {
+        if (node.isLeaf()) return false;
+        if (((ConnectiveNode) node).getValue() instanceof Negation && !node.getLeft().isLeaf()
+                && ((ConnectiveNode) node.getLeft()).getValue() instanceof Negation) return true;
+        return hasDoubleNegation(node.getLeft()) || (node.getRight() != null && hasDoubleNegation(node.getRight()));
+    }
+
+    /**
+     * Getter for the index of an agent.
+     * @param agent The agent whose index is requested.
+     * @return The index of the agent in the list of agents.
+     */
+    private static int index(Agent agent) {
+        int index = AGENTS.indexOf(agent.getSymbol());
+        if (index < 0) throw new IllegalArgumentException("Unknown agent " + agent.getSymbol());
+        return index;
+    }
+}
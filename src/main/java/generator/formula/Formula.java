@@ -21,14 +21,15 @@ public class Formula implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
-    private final int MAX_LENGTH = 280;
-    private Complexity complexity = new Complexity(0, 0);
+    public static final int MAX_LENGTH = 280;
+    private Complexity complexity;
     private int length;
     private Tree formulaTree;
-    private ArrayList<Agent> agents = new ArrayList<>();
+    private ArrayList<Agent> agents;
 
     /**
-     * The status of the formula: 0 = it is not solved yet, 1 = it is not a tautology, 2 = it is a tautology.
+     * The status of the formula: 0 = it is not solved yet, 1 = it is not a tautology, 2 = it is a tautology, 3 = it is
+     * unknown because the solver exhausted its budget.
      */
     private int status = 0;
 
@@ -37,10 +38,10 @@ public class Formula implements Serializable {
      * @param atom The propositional atom that the formula consists of.
      */
     public Formula(PropAtom atom) {
-        AtomNode atomNode = new AtomNode(atom);
-        this.formulaTree = new Tree(atomNode);
-        setComplexity(null, null, 0, 0);
+        this.formulaTree = NodeFactory.atom(atom).getTree();
+        this.complexity = new Complexity(0, 0);
         this.length = 1;
+        this.agents = new ArrayList<>();
     }
 
     /**
@@ -48,11 +49,22 @@ public class Formula implements Serializable {
      * @param formula The formula that gets copied.
      */
     public Formula(Formula formula) {
-        this.formulaTree = formula.getFormulaTree();
-        this.length = formula.getLength();
-        this.complexity = formula.getComplexity();
-        this.status = formula.getStatus();
-        this.agents = formula.getAgents();
+        this.formulaTree = formula.formulaTree;
+        this.length = formula.length;
+        this.complexity = formula.complexity;
+        this.status = formula.status;
+        this.agents = formula.agents;
+    }
+
+    /**
+     * The constructor of a formula that consists of a canonical node, e.g. a subformula that gets introduced on a
+     * tableau. The tree of the node is shared and the length is taken from the node, the complexity and the agents are
+     * only computed once they are requested.
+     * @param root The canonical root of the formula.
+     */
+    public Formula(Node root) {
+        this.formulaTree = root.getTree();
+        this.length = root.getLength();
     }
 
     /**
@@ -75,11 +87,11 @@ public class Formula implements Serializable {
      * @param currentFormula The formula that the connective gets added to.
      */
     public Formula(Connective connective, Formula currentFormula) {
-        ConnectiveNode node = new ConnectiveNode(connective);
-        node.setChildren(currentFormula.getFormulaTree().getRoot(), null);
-        formulaTree = new Tree(node);
-        setComplexity(currentFormula.getComplexity(), null, connective.getModalDepth(), 1);
-        length = currentFormula.getLength() + connective.getLength();
+        ConnectiveNode node = NodeFactory.connective(connective, currentFormula.getFormulaTree().getRoot(), null);
+        formulaTree = node.getTree();
+        complexity = new Complexity(node.getModalDepth(), node.getNrConnectives());
+        length = node.getLength();
+        agents = new ArrayList<>();
         if (connective instanceof Belief) {
             addAgent(((Belief) connective).getAgent());
         } else if (connective instanceof Possibility){
@@ -95,11 +107,12 @@ public class Formula implements Serializable {
      * @param formula2 The second formula that gets used for the new formula.
      */
     public Formula(Connective connective, Formula formula1, Formula formula2) {
-        ConnectiveNode node = new ConnectiveNode(connective);
-        node.setChildren(formula1.getFormulaTree().getRoot(), formula2.getFormulaTree().getRoot());
-        formulaTree = new Tree(node);
-        setComplexity(formula1.getComplexity(), formula2.getComplexity(), 0, 1);
-        length = formula1.getLength() + formula2.getLength() + connective.getLength() + 2;
+        ConnectiveNode node = NodeFactory.connective(connective, formula1.getFormulaTree().getRoot(),
+                formula2.getFormulaTree().getRoot());
+        formulaTree = node.getTree();
+        complexity = new Complexity(node.getModalDepth(), node.getNrConnectives());
+        length = node.getLength();
+        agents = new ArrayList<>();
         formula1.getAgents().forEach(this::addAgent);
         formula2.getAgents().forEach(this::addAgent);
     }
@@ -113,25 +126,47 @@ public class Formula implements Serializable {
     }
 
     /**
-     * A method that changes the complexity of the formula based on the connective and formula(s) that it was build with.
-     * @param oldComplexity1 The complexity of one formula that was used to build the new formula.
-     * @param oldComplexity2 The complexity of the second formula that was used to build the new formula.
-     * @param newModalDepth The increase of the modal depth based on the connective that was used to build the new
-     *                      formula with.
-     * @param newNrConnectives The increase of the number of connectives based on whether a connective was used to build
-     *                         the formula.
+     * Getter for the complexity of the formula, which gets taken from the root if it was not set.
+     * @return The complexity of the formula.
+     */
+    public Complexity getComplexity() {
+        if (complexity == null) {
+            Node root = formulaTree.getRoot();
+            complexity = new Complexity(root.getModalDepth(), root.getNrConnectives());
+        }
+        return complexity;
+    }
+
+    /**
+     * Getter for the agents that occur in the formula, which get collected from the formula tree if they were not set.
+     * @return The agents that occur in the formula.
      */
-    public void setComplexity(Complexity oldComplexity1, Complexity oldComplexity2, int newModalDepth, int newNrConnectives) {
-        if (oldComplexity1 == null) {
-            complexity.setModalDepth(newModalDepth);
-            complexity.setNrConnectives(newNrConnectives);
-        } else if (oldComplexity2 == null) {
-            complexity.setModalDepth(oldComplexity1.getModalDepth() + newModalDepth);
-            complexity.setNrConnectives(oldComplexity1.getNrConnectives() + newNrConnectives);
-        } else {
-            complexity.setModalDepth(oldComplexity1.getModalDepth() + oldComplexity2.getModalDepth() + newModalDepth);
-            complexity.setNrConnectives(oldComplexity1.getNrConnectives() + oldComplexity2.getNrConnectives() + newNrConnectives);
+    public ArrayList<Agent> getAgents() {
+        if (agents == null) {
+            ArrayList<Agent> formulaAgents = new ArrayList<>();
+            addAgents(formulaTree.getRoot(), formulaAgents);
+            agents = formulaAgents;
         }
+        return agents;
+    }
+
+    /**
+     * A recursive method that collects the agents of the modal connectives of a node and its children, in the same
+     * order as the constructors add them.
+     * @param node The node whose agents get collected.
+     * @param formulaAgents The list that the agents get added to if they are not part of it yet.
+     */
+    private static void addAgents(Node node, ArrayList<Agent> formulaAgents) {
+        if (node.isLeaf()) return;
+        Agent agent = null;
+        if (node.getValue() instanceof Belief belief) {
+            agent = belief.getAgent();
+        } else if (node.getValue() instanceof Possibility possibility) {
+            agent = possibility.getAgent();
+        }
+        if (agent != null && !formulaAgents.contains(agent)) formulaAgents.add(agent);
+        addAgents(node.getLeft(), formulaAgents);
+        if (node.getRight() != null) addAgents(node.getRight(), formulaAgents);
     }
 
     /**
@@ -147,6 +182,16 @@ public class Formula implements Serializable {
      * @return A boolean variable that indicates whether the formula is too long or not.
      */
     public boolean isFinal(){
-        return getFinalLength() >= MAX_LENGTH;
+        return isFinal(length);
+    }
+
+    /**
+     * A method that checks whether a formula of a given length is too long to be printed on Twitter, e.g. before the
+     * formula gets built.
+     * @param length The length of the formula including its outer brackets.
+     * @return A boolean variable that indicates whether the formula would be too long or not.
+     */
+    public static boolean isFinal(int length){
+        return length - 2 >= MAX_LENGTH;
     }
 }
@@ -8,11 +8,21 @@ import generator.connectives.binary.Implication;
 import generator.connectives.unary.Belief;
 import generator.connectives.unary.Negation;
 import generator.connectives.unary.Possibility;
+import generator.tree.Tree;
+import io.LevelManifest;
+import io.MappedFormulaList;
 import io.Serializer;
+import io.Settings;
 import lombok.Getter;
 import solver.TableauSolver;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * The class that implements the formula generator.
@@ -20,9 +30,47 @@ import java.util.ArrayList;
 @Getter
 public class FormulaGenerator implements Runnable {
 
+    /**
+     * The maximum number of formulas of previous levels that are kept in memory while generating a new level.
+     */
+    private static final int LEVEL_CACHE_SIZE = Settings.getInt("generator.levelCacheSize", 1_000_000);
+
+    /**
+     * The number of work units of a level that are generated concurrently.
+     */
+    private static final int NR_WORKERS = Math.max(1, Settings.getInt("generator.workers", 1));
+
+    /**
+     * Whether generated formulas are brought into a canonical form (see {@link Canonicalizer}) and whether formulas
+     * containing a double negation are left out while doing so.
+     */
+    private static final boolean CANONICALIZE = Settings.getBoolean("generator.canonicalize", false);
+    private static final boolean FOLD_DOUBLE_NEGATION = Settings.getBoolean("generator.foldDoubleNegation", false);
+
+    /**
+     * The settings that influence which formulas are generated. A level is only resumed if it was generated with the
+     * same settings.
+     */
+    private static final String SETTINGS = "canonicalize=" + CANONICALIZE + ",foldDoubleNegation=" + FOLD_DOUBLE_NEGATION;
+
+    /**
+     * The number of formulas that are generated or stored at once.
+     */
+    private static final int BATCH_SIZE = 4096;
+
+    /**
+     * The formulas of the current level. They are only kept in memory as long as the level fits into the level cache,
+     * otherwise the list is null. Formulas that were generated but not stored yet are kept in a separate list.
+     */
     private ArrayList<Formula> generatedFormulas = new ArrayList<>();
+    private ArrayList<Formula> unstoredFormulas = new ArrayList<>();
+    private long nrGeneratedFormulas;
+    private HashSet<Tree> generatedTrees = new HashSet<>();
+    private HashSet<Tree> solverTrees = new HashSet<>();
     private ArrayList<Connective> connectives = new ArrayList<>();
     private ArrayList<Agent> usedAgents = new ArrayList<>();
+    private final LevelCache levels = new LevelCache(LEVEL_CACHE_SIZE);
+    private final ForkJoinPool workers = new ForkJoinPool(NR_WORKERS);
 
     private int nrConnectives;
     private int randomFile;
@@ -35,80 +83,88 @@ public class FormulaGenerator implements Runnable {
 
     /**
      * The main method of the formula generator that generates all formulas and starts the tableau solver after
-     * generating the formulas with one connective.
+     * generating the formulas with one connective. Levels that were stored completely by an earlier run (see
+     * {@link LevelManifest}) are not generated again, a level that was interrupted is resumed from its completed work
+     * units.
      */
     @Override
     public void run() {
 
         nrConnectives = 0;
         initializeConnectives();
-        addAtoms();
         boolean running = true;
-        storeFormulas();
+        boolean regenerated = false;
         while (running) {
-            generatedFormulas = new ArrayList<>();
-            nrConnectives++;
-            addFormulas();
-            storeFormulas();
+            LevelManifest manifest = new LevelManifest(nrConnectives);
+            if (regenerated || !manifest.hasSettings(SETTINGS)) manifest.reset(SETTINGS);
+            if (!isStored(manifest)) {
+                generateLevel(manifest);
+                regenerated = true;
+            }
 
             if (nrConnectives == 1) new Thread(new TableauSolver(this)).start();
 
-            if (generatedFormulas.isEmpty()) running = false;
+            if (manifest.getCount() == 0) running = false;
+            else nrConnectives++;
         }
     }
 
     /**
      * This method chooses a random formula that has not been solved yet out of all existing files containing formulas
-     * and deletes the formula afterwards from the file.
-     * @return A random formula that has not been solved yet.
+     * and marks the formula as consumed in its file.
+     * @return A random formula that has not been solved yet or null if there is none.
      */
     public Formula chooseRandomFormula() {
-
-        randomFile = (int)(Math.random() * nrConnectives);
-        if (randomFile == nrConnectives) randomFile -= 1;
-        ArrayList<Formula> formulas = Serializer.loadFormulas(randomFile + "_nr_connectives_solve.ser");
-        if (formulas == null || formulas.size() == 0) {
-            ArrayList<Integer> existingFiles = new ArrayList<>();
-            for (int i = 0; i < nrConnectives; i++){
-                existingFiles.add(i);
-            }
-            existingFiles.remove(randomFile);
-            formulas = chooseOtherFile(existingFiles);
-        }
-        if (formulas != null) {
-            int randomIndex = (int)(Math.random() * formulas.size());
-            Formula randomFormula = formulas.get(randomIndex);
-            if (randomFormula.getStatus() != 0){
-                return chooseRandomFormula();
-            } else {
-                formulas.remove(randomIndex);
-                Serializer.saveFormulas(formulas, randomFile + "_nr_connectives_solve.ser");
-                return randomFormula;
-            }
-        } else {
-            return null;
+        ArrayList<Integer> existingFiles = new ArrayList<>();
+        for (int i = 0; i < nrConnectives; i++) existingFiles.add(i);
+        while (!existingFiles.isEmpty()) {
+            int randomIndex = (int)(Math.random() * existingFiles.size());
+            randomFile = existingFiles.get(randomIndex);
+            Formula randomFormula = Serializer.takeRandomFormula(randomFile + "_nr_connectives_solve.fml");
+            if (randomFormula != null) return randomFormula;
+            existingFiles.remove(randomIndex);
         }
+        return null;
+    }
+
+    /**
+     * A method that indicates whether the current level was stored completely and its file was not changed since.
+     * @param manifest The manifest of the level.
+     * @return A boolean variable indicating whether the level is stored.
+     */
+    private boolean isStored(LevelManifest manifest) {
+        String fileName = nrConnectives + "_nr_connectives.fml";
+        return manifest.isComplete() && manifest.getCount() == Serializer.sizeFormulas(fileName)
+                && manifest.getChecksum() == Serializer.checksumFormulas(fileName);
     }
 
     /**
-     * This method is recursively loading files to find a random formula in one of the files that has not been solved
-     * yet. If no other files are left it returns null.
-     * @param existingFiles A list of generated files.
-     * @return A list of formulas that were loaded from a file. It returns null if no such file exists.
+     * A method that generates and stores the current level and marks it as complete in its manifest. A new generation
+     * starting with the atoms also empties the files of the formulas per modal depth.
+     * @param manifest The manifest of the level.
      */
-    private ArrayList<Formula> chooseOtherFile(ArrayList<Integer> existingFiles) {
-        if (existingFiles.isEmpty()) {
-            return null;
+    private void generateLevel(LevelManifest manifest) {
+        generatedFormulas = new ArrayList<>();
+        unstoredFormulas = new ArrayList<>();
+        nrGeneratedFormulas = 0;
+        generatedTrees = new HashSet<>();
+        solverTrees = new HashSet<>();
+        if (nrConnectives == 0) {
+            for (int modalDepth = 0; Serializer.getStore(modalDepth + "_modal_depth.fml", false) != null; modalDepth++) {
+                Serializer.deleteFormulas(modalDepth + "_modal_depth.fml");
+                Serializer.deleteFormulas(modalDepth + "_modal_depth_solve.fml");
+            }
         }
-        int newRandomIndex = (int)(Math.random() * existingFiles.size());
-        randomFile = existingFiles.get(newRandomIndex);
-        ArrayList<Formula> formulas = Serializer.loadFormulas(existingFiles.get(newRandomIndex) + "_nr_connectives_solve.ser");
-        if (formulas == null || formulas.size() == 0) {
-            existingFiles.remove(newRandomIndex);
-            return chooseOtherFile(existingFiles);
+        prepareFiles(manifest);
+        if (nrConnectives == 0) {
+            addAtoms();
         } else {
-            return formulas;
+            addFormulas(manifest);
         }
+        storeFormulas();
+        if (generatedFormulas != null) levels.put(nrConnectives, generatedFormulas);
+        manifest.complete(nrGeneratedFormulas, Serializer.checksumFormulas(nrConnectives + "_nr_connectives.fml"));
+        if (nrConnectives > 0) removeUnits();
     }
 
     /**
@@ -122,13 +178,89 @@ public class FormulaGenerator implements Runnable {
 
     /**
      * This method initiates the generation of all possible new formulas by reusing old formulas and each connective.
+     * The generation is divided into work units, one for each connective and split (see
+     * {@link Connective#getNrSplits(int)}), which are generated concurrently by a pool of workers (setting
+     * {@code generator.workers}, default 1). Every unit stores its formulas in its own file, so units that were
+     * completed before an interruption do not get generated again. Afterwards the formulas of all units are merged in a
+     * fixed order, so the generated level does not depend on the number of workers. The mappings of the unit files are
+     * released right after their formulas were merged, so the files can be deleted once the level is stored.
+     * @param manifest The manifest of the level, which records the completed units.
      */
-    private void addFormulas() {
-        connectives.forEach(connective -> {
-            ArrayList<Formula> newFormulas;
-            newFormulas = connective.generateAllFormulas(nrConnectives - 1);
-            newFormulas.forEach(this::saveFormula);
-        });
+    private void addFormulas(LevelManifest manifest) {
+        ArrayList<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < connectives.size(); i++) {
+            for (int split = 0; split < connectives.get(i).getNrSplits(nrConnectives - 1); split++) {
+                int connectiveIndex = i;
+                int unitSplit = split;
+                tasks.add(workers.submit(() -> generateUnit(manifest, connectiveIndex, unitSplit)));
+            }
+        }
+        tasks.forEach(ForkJoinTask::join);
+        for (String unit : units()) {
+            try (MappedFormulaList unitFormulas = Serializer.openFormulas(unitFile(unit))) {
+                if (unitFormulas != null) unitFormulas.forEach(this::saveFormula);
+            }
+        }
+    }
+
+    /**
+     * A method that generates the formulas of a work unit and stores them in the file of the unit, unless the unit was
+     * completed before and its file did not change since. The formulas are pulled from the connective one by one and
+     * stored in batches, so only a single batch of the unit is kept in memory.
+     * @param manifest The manifest of the level.
+     * @param connectiveIndex The index of the connective of the unit.
+     * @param split The split of the unit.
+     */
+    private void generateUnit(LevelManifest manifest, int connectiveIndex, int split) {
+        String unit = connectiveIndex + "_" + split;
+        String fileName = unitFile(unit);
+        if (manifest.isUnitComplete(unit, Serializer.sizeFormulas(fileName), Serializer.checksumFormulas(fileName))) {
+            return;
+        }
+        Serializer.saveFormulas(new ArrayList<>(), fileName);
+        ArrayList<Formula> unitFormulas = new ArrayList<>();
+        long nrUnitFormulas = 0;
+        Iterator<Formula> formulas = connectives.get(connectiveIndex).generateFormulas(nrConnectives - 1, split, levels);
+        while (formulas.hasNext()) {
+            Formula formula = prepareFormula(formulas.next());
+            if (formula != null) unitFormulas.add(formula);
+            if (unitFormulas.size() == BATCH_SIZE || !formulas.hasNext()) {
+                Serializer.appendFormulas(unitFormulas, fileName);
+                nrUnitFormulas += unitFormulas.size();
+                unitFormulas = new ArrayList<>();
+            }
+        }
+        manifest.completeUnit(unit, nrUnitFormulas, Serializer.checksumFormulas(fileName));
+    }
+
+    /**
+     * Getter for the names of all work units of the current level in the order in which they get merged.
+     * @return The names of the work units.
+     */
+    private ArrayList<String> units() {
+        ArrayList<String> units = new ArrayList<>();
+        for (int i = 0; i < connectives.size(); i++) {
+            for (int split = 0; split < connectives.get(i).getNrSplits(nrConnectives - 1); split++) {
+                units.add(i + "_" + split);
+            }
+        }
+        return units;
+    }
+
+    /**
+     * Getter for the name of the file of a work unit of the current level.
+     * @param unit The name of the work unit.
+     * @return The name of the file that contains the formulas of the unit.
+     */
+    private String unitFile(String unit) {
+        return nrConnectives + "_nr_connectives_unit_" + unit + ".fml";
+    }
+
+    /**
+     * A method that deletes the files of the work units of the current level once the level is stored.
+     */
+    private void removeUnits() {
+        units().forEach(unit -> Serializer.deleteFormulas(unitFile(unit)));
     }
 
     /**
@@ -136,57 +268,117 @@ public class FormulaGenerator implements Runnable {
      * agent.
      */
     private void initializeConnectives() {
-        connectives.add(new Negation());
-        connectives.add(new Conjunction());
-        connectives.add(new Disjunction());
-        connectives.add(new Implication());
-        connectives.add(new Biimplication());
-        connectives.add(new Possibility(new Agent("\u2081")));
-        connectives.add(new Possibility(new Agent("\u2082")));
-        connectives.add(new Possibility(new Agent("\u2083")));
-        connectives.add(new Belief(new Agent("\u2081")));
-        connectives.add(new Belief(new Agent("\u2082")));
-        connectives.add(new Belief(new Agent("\u2083")));
-    }
-
-    /**
-     * A method that checks whether a formula adheres to the maximum character limit and whether it is not duplicated.
-     * If that is the case it adds the formula to the list of newly generated formulas.
+        connectives.addAll(createConnectives());
+    }
+
+    /**
+     * A method that creates an instance of each connective that formulas are generated with, the epistemic operators
+     * once for each agent (see {@link Agent#SYMBOLS}). The order of the connectives is fixed, since the codes of stored
+     * formulas depend on it (see {@link io.FormulaCodec}).
+     * @return The connectives in their fixed order.
+     */
+    public static List<Connective> createConnectives() {
+        List<Connective> connectives = new ArrayList<>(List.of(new Negation(), new Conjunction(), new Disjunction(),
+                new Implication(), new Biimplication()));
+        for (String agent : Agent.SYMBOLS) connectives.add(new Possibility(new Agent(agent)));
+        for (String agent : Agent.SYMBOLS) connectives.add(new Belief(new Agent(agent)));
+        return connectives;
+    }
+
+    /**
+     * A method that checks whether a formula adheres to the maximum character limit. If canonicalization is turned on,
+     * the operands of commutative connectives get ordered and formulas with a double negation are left out if folding
+     * is turned on as well.
+     * @param formula The formula that gets checked.
+     * @return The (canonical) formula or null if the formula is left out.
+     */
+    private Formula prepareFormula(Formula formula) {
+        if (CANONICALIZE) {
+            if (FOLD_DOUBLE_NEGATION && Canonicalizer.hasDoubleNegation(formula)) return null;
+            formula = Canonicalizer.normalize(formula);
+        }
+        return formula.isFinal() ? null : formula;
+    }
+
+    /**
+     * A method that checks whether a formula is not duplicated. If that is the case it adds the formula to the newly
+     * generated formulas, which are stored once a batch is full. Since the trees of formulas are hash-consed, a
+     * duplicate has the same root node and is found in the set of generated trees in constant time. Duplicates can
+     * only occur with canonicalization, since otherwise every connective and pair of operands gives a different
+     * formula, so the set is only kept in that case.
      * @param formula The formula that gets checked.
      */
     private void saveFormula(Formula formula) {
-        if (!formula.isFinal() && !duplicatedFormula(formula)){
-            generatedFormulas.add(formula);
+        if (CANONICALIZE && !generatedTrees.add(formula.getFormulaTree())) return;
+        unstoredFormulas.add(formula);
+        if (unstoredFormulas.size() == BATCH_SIZE) storeFormulas();
+    }
+
+    /**
+     * A method that empties the files of the current level and prepares the files per modal depth for appending the
+     * formulas of the level. The sizes of the files per modal depth are recorded in the manifest before anything gets
+     * appended, so formulas that were appended by an interrupted run are removed before appending them again.
+     * @param manifest The manifest of the level.
+     */
+    private void prepareFiles(LevelManifest manifest) {
+        Serializer.saveFormulas(new ArrayList<>(), nrConnectives + "_nr_connectives.fml");
+        Serializer.saveFormulas(new ArrayList<>(), nrConnectives + "_nr_connectives_solve.fml");
+        for (int modalDepth = 0; modalDepth <= nrConnectives; modalDepth++) {
+            for (String fileName : List.of(modalDepth + "_modal_depth.fml", modalDepth + "_modal_depth_solve.fml")) {
+                long size = manifest.getStoreSize(fileName);
+                if (size < 0) manifest.setStoreSize(fileName, Serializer.sizeFormulas(fileName));
+                else Serializer.truncateFormulas(fileName, size);
+            }
         }
     }
 
     /**
-     * A method that stores the newly generated formulas in two times two files. For each measure of the complexity
-     * (number of connectives and modal depth) there are two different files. One file for solving the formulas and one
-     * file for reusing the formulas for generating more complex ones.
+     * A method that stores the newly generated formulas that were not stored yet in two times two files. For each
+     * measure of the complexity (number of connectives and modal depth) there are two different files. One file for
+     * solving the formulas and one file for reusing the formulas for generating more complex ones. The formulas are
+     * also kept for the level cache as long as the level fits into it, so the next level does not need to read them
+     * from disk again.
      */
     private void storeFormulas() {
-        if (!generatedFormulas.isEmpty()) {
-            String fileName = nrConnectives + "_nr_connectives.ser";
-            Serializer.saveFormulas(generatedFormulas, fileName);
-            fileName = nrConnectives + "_nr_connectives_solve.ser";
-            Serializer.saveFormulas(generatedFormulas, fileName); // for the solver to solve
-
-            for (Formula generatedFormula : generatedFormulas) {
-                fileName = generatedFormula.getComplexity().getModalDepth() + "_modal_depth.ser";
-                Serializer.saveFormulasSingle(generatedFormula, fileName);
-                fileName = generatedFormula.getComplexity().getModalDepth() + "_modal_depth_solve.ser";
-                Serializer.saveFormulasSingle(generatedFormula, fileName);
+        if (!unstoredFormulas.isEmpty()) {
+            String fileName = nrConnectives + "_nr_connectives.fml";
+            Serializer.appendFormulas(unstoredFormulas, fileName);
+            ArrayList<Formula> solverFormulas = solverFormulas();
+            fileName = nrConnectives + "_nr_connectives_solve.fml";
+            Serializer.appendFormulas(solverFormulas, fileName); // for the solver to solve
+
+            HashMap<Integer, ArrayList<Formula>> formulasPerModalDepth = new HashMap<>();
+            for (Formula generatedFormula : solverFormulas) {
+                formulasPerModalDepth.computeIfAbsent(generatedFormula.getComplexity().getModalDepth(),
+                        modalDepth -> new ArrayList<>()).add(generatedFormula);
+            }
+            formulasPerModalDepth.forEach((modalDepth, formulas) -> {
+                Serializer.appendFormulas(formulas, modalDepth + "_modal_depth.fml");
+                Serializer.appendFormulas(formulas, modalDepth + "_modal_depth_solve.fml");
+            });
+
+            if (generatedFormulas != null) {
+                generatedFormulas.addAll(unstoredFormulas);
+                if (generatedFormulas.size() > LEVEL_CACHE_SIZE) generatedFormulas = null;
             }
+            nrGeneratedFormulas += unstoredFormulas.size();
+            unstoredFormulas = new ArrayList<>();
         }
     }
 
     /**
-     * A method that indicates whether a formula was already generated once before.
-     * @param formula The formula that gets checked on whether it is duplicated
-     * @return A boolean variable indicating whether the formula is duplicated or not
+     * A method that returns the newly generated formulas that are passed on to the solver. If canonicalization is
+     * turned on, only one formula out of all formulas that only differ by renaming the agents is passed on. All
+     * formulas are still reused for generating more complex ones, since the renamed formulas are needed as operands.
+     * @return The formulas that are stored for the solver.
      */
-    private boolean duplicatedFormula(Formula formula) {
-        return generatedFormulas.stream().anyMatch(oldFormula -> oldFormula.getFormulaTree().equals(formula.getFormulaTree()));
+    private ArrayList<Formula> solverFormulas() {
+        if (!CANONICALIZE) return unstoredFormulas;
+        ArrayList<Formula> solverFormulas = new ArrayList<>();
+        for (Formula generatedFormula : unstoredFormulas) {
+            Formula representative = Canonicalizer.reduceAgents(generatedFormula);
+            if (solverTrees.add(representative.getFormulaTree())) solverFormulas.add(representative);
+        }
+        return solverFormulas;
     }
 }
@@ -1,12 +1,11 @@
 package generator.formula;
 
-import generator.tree.Node;
-import generator.connectives.Connective;
+import generator.connectives.unary.Belief;
 import solver.Branch;
 
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.BitSet;
 
 /**
  * A class that represents formulas that can be re-applied on the branch using new relations.
@@ -16,32 +15,49 @@ public class InfTableauFormula extends TableauFormula implements Serializable {
     @Serial
     private static final long serialVersionUID = 16L;
 
-    private ArrayList<Pair> oldRelations;
+    /**
+     * The states that the formula has been applied to already.
+     */
+    private final BitSet appliedSuccessors;
 
     /**
      * Constructor for the formulas that can be re-applied.
      * @param formula The original instance of a formula that can be re-applied.
-     * @param relations The relations that already exist on the branch of the tableau on which the formula exists.
+     * @param successors The states that the state of the formula relates to on the branch, to which the formula
+     *                   gets applied right away.
+     */
+    public InfTableauFormula(TableauFormula formula, BitSet successors) {
+        super(formula, formula.getState());
+        this.appliedSuccessors = (BitSet) successors.clone();
+    }
+
+    /**
+     * Constructor that copies a formula that can be re-applied for a forked branch.
+     * @param formula The formula that gets copied.
      */
-    public InfTableauFormula(Formula formula, ArrayList<Pair> relations) {
-        super(formula);
-        this.oldRelations = new ArrayList<>(relations);
+    public InfTableauFormula(InfTableauFormula formula) {
+        super(formula, formula.getState());
+        this.appliedSuccessors = (BitSet) formula.appliedSuccessors.clone();
     }
 
     /**
-     * If a new relation gets added to the branch on which the formula is places, this method checks whether the formula
-     * can be re-applied with that new relation. If it can be re-applied, the rule of the formulas main connective is
-     * applied.
-     * @param relations All relations of the agent that is occurring in the formula.
+     * If a new relation got added to the branch on which the formula is placed, this method applies the rule of the
+     * formulas main connective to the state that the state of the formula relates to now, unless the formula was
+     * applied to that state already.
+     * @param successor The state that the state of the formula relates to for the agent of the formula.
      * @param branch The branch on which the formula should be re-applied.
      */
-    public void applyNewRelations(ArrayList<Pair> relations, Branch branch) {
-        relations.forEach(relation1 -> {
-            if (relation1.getValue0().equals(this.getState()))
-                if (!oldRelations.contains(new Pair(this.getState(), relation1.getValue1()))) {
-                    Node root = this.getFormulaTree().getRoot();
-                    if (!root.isLeaf()) ((Connective) root.getValue()).applyRule(branch.getTableau(), branch, this);
-                }
-        });
+    public void applyNewRelation(int successor, Branch branch) {
+        if (appliedSuccessors.get(successor)) return;
+        appliedSuccessors.set(successor);
+        getBelief().applyRule(branch, this, successor);
+    }
+
+    /**
+     * Getter for the belief operator that is the main connective of the formula.
+     * @return The belief operator.
+     */
+    public Belief getBelief() {
+        return (Belief) getFormulaTree().getRoot().getValue();
     }
 }
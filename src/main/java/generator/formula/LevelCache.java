@@ -0,0 +1,138 @@
+package generator.formula;
+
+import io.MappedFormulaList;
+import io.Serializer;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cache of the generated formulas per number of connectives (level) that is shared by all connectives, so a level
+ * file is only decoded once per generation round instead of once per connective. The cache holds at most a maximum
+ * number of formulas and evicts the least recently used levels first. Levels that do not fit into the cache are not
+ * loaded but read from disk through a memory-mapped list (see {@link Serializer#openFormulas(String)}). For every level
+ * the cache can also provide the order of its formulas by length (see {@link LengthOrder}), which is small and
+ * therefore kept for all levels.
+ */
+public class LevelCache {
+
+    private final LinkedHashMap<Integer, List<Formula>> levels = new LinkedHashMap<>(16, 0.75f, true);
+    private final HashMap<Integer, LengthOrder> lengthOrders = new HashMap<>();
+    private final long maxSize;
+    private long size;
+
+    /**
+     * Constructor of the level cache.
+     * @param maxSize The maximum number of formulas that are kept in memory.
+     */
+    public LevelCache(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Getter for the formulas of a level. A level that is not cached yet is read from its file and cached if it fits.
+     * @param nrConnectives The number of connectives of the formulas of the level.
+     * @return A read-only list of the formulas of the level or null if the level file does not exist.
+     */
+    public synchronized List<Formula> get(int nrConnectives) {
+        List<Formula> formulas = levels.get(nrConnectives);
+        if (formulas != null) return formulas;
+        MappedFormulaList mappedFormulas = Serializer.openFormulas(nrConnectives + "_nr_connectives.fml");
+        if (mappedFormulas == null || mappedFormulas.size() > maxSize) return mappedFormulas;
+        formulas = new ArrayList<>(mappedFormulas);
+        mappedFormulas.close();
+        return put(nrConnectives, formulas);
+    }
+
+    /**
+     * A method that adds the formulas of a level to the cache, e.g. right after they were generated and stored.
+     * Levels that were used least recently are evicted until the cache fits its maximum size again.
+     * @param nrConnectives The number of connectives of the formulas of the level.
+     * @param formulas The formulas of the level, the list must not be changed afterwards.
+     * @return The formulas of the level.
+     */
+    public synchronized List<Formula> put(int nrConnectives, List<Formula> formulas) {
+        lengthOrders.remove(nrConnectives);
+        if (formulas.size() > maxSize) return formulas;
+        List<Formula> old = levels.put(nrConnectives, formulas);
+        if (old != null) size -= old.size();
+        size += formulas.size();
+        Iterator<Map.Entry<Integer, List<Formula>>> eldest = levels.entrySet().iterator();
+        while (size > maxSize) {
+            Map.Entry<Integer, List<Formula>> entry = eldest.next();
+            if (entry.getKey() == nrConnectives) continue;
+            size -= entry.getValue().size();
+            eldest.remove();
+        }
+        return formulas;
+    }
+
+    /**
+     * Getter for the order of the formulas of a level by length. It is computed once per level.
+     * @param nrConnectives The number of connectives of the formulas of the level.
+     * @return The order of the formulas by length or null if the level file does not exist.
+     */
+    public synchronized LengthOrder getLengthOrder(int nrConnectives) {
+        LengthOrder lengthOrder = lengthOrders.get(nrConnectives);
+        if (lengthOrder != null) return lengthOrder;
+        List<Formula> formulas = get(nrConnectives);
+        if (formulas == null) return null;
+        lengthOrder = new LengthOrder(formulas);
+        lengthOrders.put(nrConnectives, lengthOrder);
+        return lengthOrder;
+    }
+
+    /**
+     * The indices of the formulas of a level sorted by the length of the formulas (bucketed by length), together with
+     * their lengths. This allows the generator to combine only those formulas whose combined length still fits.
+     */
+    @Getter
+    public static final class LengthOrder {
+
+        /**
+         * The indices of the formulas from short to long, formulas of the same length keep their order.
+         */
+        private final int[] indices;
+
+        /**
+         * The length of every formula in the order of the indices.
+         */
+        private final int[] lengths;
+
+        /**
+         * Constructor of the length order, which sorts the formulas of a level with a counting sort by length.
+         * @param formulas The formulas of the level.
+         */
+        LengthOrder(List<Formula> formulas) {
+            int[] formulaLengths = new int[formulas.size()];
+            int maxLength = 0;
+            for (int i = 0; i < formulaLengths.length; i++) {
+                formulaLengths[i] = formulas.get(i).getLength();
+                maxLength = Math.max(maxLength, formulaLengths[i]);
+            }
+            int[] bucketStarts = new int[maxLength + 2];
+            for (int length : formulaLengths) bucketStarts[length + 1]++;
+            for (int length = 1; length < bucketStarts.length; length++) bucketStarts[length] += bucketStarts[length - 1];
+            indices = new int[formulaLengths.length];
+            lengths = new int[formulaLengths.length];
+            for (int i = 0; i < formulaLengths.length; i++) {
+                int position = bucketStarts[formulaLengths[i]]++;
+                indices[position] = i;
+                lengths[position] = formulaLengths[i];
+            }
+        }
+
+        /**
+         * Getter for the number of formulas of the level.
+         * @return The number of formulas.
+         */
+        public int size() {
+            return indices.length;
+        }
+    }
+}
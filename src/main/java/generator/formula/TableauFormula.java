@@ -1,13 +1,12 @@
 package generator.formula;
 
+import generator.connectives.RuleClass;
 import generator.tree.Node;
-import generator.tree.Tree;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.ArrayList;
 
 /**
  * A class representing formulas that occur on a tableau.
@@ -19,9 +18,13 @@ public class TableauFormula extends Formula implements Serializable {
     @Serial
     private static final long serialVersionUID = 17L;
 
-    private int priority = 0;
     private int state;
 
+    /**
+     * The kind of rule that gets applied to the formula, which the solver uses to choose the next formula to expand.
+     */
+    private RuleClass ruleClass;
+
     /**
      * Constructor for a tableau formula that starts a tableau.
      * @param formula The formula instance that starts the tableau in state 0.
@@ -29,7 +32,7 @@ public class TableauFormula extends Formula implements Serializable {
     public TableauFormula(Formula formula) {
         super(formula);
         this.state = 0;
-        choosePriority();
+        classify();
     }
 
     /**
@@ -40,49 +43,27 @@ public class TableauFormula extends Formula implements Serializable {
     public TableauFormula(Formula formula, int state) {
         super(formula);
         this.state = state;
-        choosePriority();
+        classify();
     }
 
     /**
-     * The constructor of a tableau formula that gets introduced using a part of another formula.
-     * @param formulaTree The formula tree of the new tableau formula.
+     * The constructor of a tableau formula that gets introduced using a part of another formula. A tableau formula is
+     * only the canonical node of the part together with a state, nothing else gets copied or computed.
+     * @param root The canonical node of the part of the other formula.
      * @param state The state in which the tableau formula gets introduced.
-     * @param length The length of the tableau formula.
-     * @param complexity The complexity of the tableau formula.
-     * @param agents The agents that appear in the tableau formula.
      */
-    public TableauFormula(Tree formulaTree, int state, int length, Complexity complexity, ArrayList<Agent> agents) {
-        super(formulaTree, length, complexity, agents);
+    public TableauFormula(Node root, int state) {
+        super(root);
         this.state = state;
-        choosePriority();
+        classify();
     }
 
     /**
-     * A method that chooses the priority of a formula based on the main connective appearing in the formula. If the
-     * main connective is a negation, the priority gets determined based on the main connectives besides the negation.
+     * A method that classifies the rule that gets applied to the formula based on its main connective. If the main
+     * connective is a negation, the rule is determined by the main connective besides the negation.
      */
-    public void choosePriority() {
-        if (getLength() > 1) {
-            Node root = getFormulaTree().getRoot();
-            switch(root.toString().charAt(0)){
-                case '¬' -> {
-                    Node left = root.getLeft();
-                    switch (left.toString().charAt(0)) {
-                        case '¬' -> setPriority(1);
-                        case '∨', '→' -> setPriority(2);
-                        case 'M' -> setPriority(3);
-                        case 'B' -> setPriority(4);
-                        case '∧', '⇿' -> setPriority(5);
-                        default -> setPriority(0);
-                    }
-                }
-                case '∧' -> setPriority(2);
-                case 'B' -> setPriority(3);
-                case 'M' -> setPriority(4);
-                case '∨', '→', '⇿' -> setPriority(5);
-                default -> setPriority(0);
-            }
-        }
+    private void classify() {
+        ruleClass = RuleClass.of(getFormulaTree().getRoot());
     }
 
     /**
@@ -16,13 +16,24 @@ public class AtomNode extends Node implements Serializable {
     private final PropAtom value;
 
     /**
-     * Constructor for the node consisting of a propositional atom.
+     * Constructor for the node consisting of a propositional atom. Use {@link NodeFactory#atom(PropAtom)} to obtain
+     * the canonical instance.
      * @param value The propositional atom on the node.
+     * @param hash The structural hash of the node.
      */
-    public AtomNode(PropAtom value) {
+    AtomNode(PropAtom value, int hash) {
+        super(null, null, hash, 1, 0, 0);
         this.value = value;
     }
 
+    /**
+     * Getter for the propositional atom on the node.
+     * @return The propositional atom.
+     */
+    public PropAtom getAtom() {
+        return value;
+    }
+
     @Override
     public String printValue() {
         return value.getSymbol();
@@ -18,10 +18,19 @@ public class ConnectiveNode extends Node implements Serializable {
     private final Connective value;
 
     /**
-     * Constructor of a node that consists of a connective.
+     * Constructor of a node that consists of a connective. Use
+     * {@link NodeFactory#connective(Connective, Node, Node)} to obtain the canonical instance.
      * @param connective The connective that the node consists of.
+     * @param left The left child of the node.
+     * @param right The right child of the node.
+     * @param hash The structural hash of the node.
      */
-    public ConnectiveNode(Connective connective) {
+    ConnectiveNode(Connective connective, Node left, Node right, int hash) {
+        super(left, right, hash,
+                right == null ? left.getLength() + connective.getLength()
+                        : left.getLength() + right.getLength() + connective.getLength() + 2,
+                left.getModalDepth() + (right == null ? 0 : right.getModalDepth()) + connective.getModalDepth(),
+                left.getNrConnectives() + (right == null ? 0 : right.getNrConnectives()) + 1);
         this.value = connective;
     }
 
@@ -1,7 +1,7 @@
 package generator.tree;
 
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.Setter;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -9,7 +9,6 @@ import java.io.Serializable;
 /**
  * An abstract class that represents a node of a tree.
  */
-@Setter
 @Getter
 public abstract class Node implements Serializable {
 
@@ -19,22 +18,92 @@ public abstract class Node implements Serializable {
     /**
      * The left and right children of the node.
      */
-    protected Node left = null;
-    protected Node right = null;
+    protected final Node left;
+    protected final Node right;
 
     /**
-     * Empty constructor for a node.
+     * The structural hash of the node, precomputed by the node factory.
      */
-    public Node() {}
+    @Getter(AccessLevel.NONE)
+    private final int hash;
 
     /**
-     * A setter for both children of the node.
-     * @param newLeft The node that will be the new left child of the node.
-     * @param newRight The node that will be the new right child of the node.
+     * The printed length, the modal depth and the number of connectives of the formula consisting of the node, which
+     * are precomputed, so subformulas (e.g. on a tableau) can be used without recomputing them.
      */
-    public void setChildren(Node newLeft, Node newRight) {
-        left = newLeft;
-        right = newRight;
+    private final int length;
+    private final int modalDepth;
+    private final int nrConnectives;
+
+    /**
+     * The tree consisting of the node, which is shared by all formulas with this root.
+     */
+    @Getter(AccessLevel.NONE)
+    private transient Tree tree;
+
+    /**
+     * The unique id of the canonical node and its structural key. Both are assigned when the node gets interned by the
+     * node factory and are not serialized, deserialized nodes get interned again.
+     */
+    private transient int id;
+    @Getter(AccessLevel.PACKAGE)
+    private transient NodeFactory.Key key;
+
+    /**
+     * Constructor for a node, nodes get created by the node factory.
+     * @param left The left child of the node.
+     * @param right The right child of the node.
+     * @param hash The structural hash of the node.
+     * @param length The printed length of the formula consisting of the node.
+     * @param modalDepth The modal depth of the formula consisting of the node.
+     * @param nrConnectives The number of connectives of the formula consisting of the node.
+     */
+    Node(Node left, Node right, int hash, int length, int modalDepth, int nrConnectives) {
+        this.left = left;
+        this.right = right;
+        this.hash = hash;
+        this.length = length;
+        this.modalDepth = modalDepth;
+        this.nrConnectives = nrConnectives;
+    }
+
+    /**
+     * Marks the node as the canonical node for its structure.
+     * @param key The structural key of the node.
+     * @param id The unique id of the canonical node.
+     */
+    void canonicalize(NodeFactory.Key key, int id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    /**
+     * Getter for the tree consisting of the node. Trees cannot be changed, so one tree per node is shared.
+     * @return The tree with the node as its root.
+     */
+    public Tree getTree() {
+        Tree nodeTree = tree;
+        if (nodeTree == null) tree = nodeTree = new Tree(this);
+        return nodeTree;
+    }
+
+    /**
+     * Replaces a deserialized node by the canonical instance of its structure.
+     * @return The canonical node.
+     */
+    @Serial
+    protected Object readResolve() {
+        return NodeFactory.intern(this);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        return this == object;
     }
 
     /**
@@ -0,0 +1,198 @@
+package generator.tree;
+
+import generator.connectives.Connective;
+import generator.connectives.unary.Negation;
+import generator.formula.PropAtom;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A factory that hash-conses the nodes of formula trees. Structurally identical subtrees are represented by a single
+ * canonical node instance, so two trees are equal exactly if their roots are the same object. Canonical nodes are held
+ * weakly and disappear from the factory once no formula refers to them anymore. The factory is thread-safe and does
+ * not take a global lock, so it can be used by several solver threads at once.
+ */
+public final class NodeFactory {
+
+    private static final ConcurrentHashMap<Key, NodeReference> nodes = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Node> collectedNodes = new ReferenceQueue<>();
+    private static final AtomicInteger nextId = new AtomicInteger(1);
+    private static final Negation NEGATION = new Negation();
+
+    /**
+     * A weak reference to a canonical node that remembers its key, so the entry can be removed from the factory once
+     * the node got garbage collected.
+     */
+    private static final class NodeReference extends WeakReference<Node> {
+
+        private final Key key;
+
+        /**
+         * Constructor of the weak reference to a canonical node.
+         * @param node The canonical node.
+         * @param key The structural key of the node.
+         */
+        NodeReference(Node node, Key key) {
+            super(node, collectedNodes);
+            this.key = key;
+        }
+    }
+
+    /**
+     * The structural key of a node: its printed symbol and the (canonical) instances of its children.
+     */
+    static final class Key {
+
+        private final String symbol;
+        private final Node left;
+        private final Node right;
+        private final int hash;
+
+        /**
+         * Constructor of the key of a node.
+         * @param symbol The printed symbol of the node.
+         * @param left The canonical left child of the node or null.
+         * @param right The canonical right child of the node or null.
+         */
+        Key(String symbol, Node left, Node right) {
+            this.symbol = symbol;
+            this.left = left;
+            this.right = right;
+            this.hash = hash(symbol, left, right);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) return true;
+            if (!(object instanceof Key other)) return false;
+            return left == other.left && right == other.right && symbol.equals(other.symbol);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Private constructor, the factory only offers static methods.
+     */
+    private NodeFactory() {}
+
+    /**
+     * Returns the canonical node consisting of a propositional atom.
+     * @param atom The propositional atom on the node.
+     * @return The canonical node of the atom.
+     */
+    public static AtomNode atom(PropAtom atom) {
+        return (AtomNode) intern(new AtomNode(atom, hash(atom.getSymbol(), null, null)));
+    }
+
+    /**
+     * Returns the canonical node consisting of a connective with the given children.
+     * @param connective The connective of the node.
+     * @param left The left child of the node.
+     * @param right The right child of the node, null for unary connectives.
+     * @return The canonical node with the given connective and children.
+     */
+    public static ConnectiveNode connective(Connective connective, Node left, Node right) {
+        Node canonicalLeft = left == null ? null : intern(left);
+        Node canonicalRight = right == null ? null : intern(right);
+        Key key = new Key(connective.getSymbol(), canonicalLeft, canonicalRight);
+        Node existing = lookup(key);
+        if (existing != null) return (ConnectiveNode) existing;
+        return (ConnectiveNode) register(new ConnectiveNode(connective, canonicalLeft, canonicalRight, key.hash), key);
+    }
+
+    /**
+     * Returns the canonical node of the negation of a node, e.g. for a negated subformula on a tableau.
+     * @param node The node that gets negated.
+     * @return The canonical node of the negation.
+     */
+    public static ConnectiveNode negation(Node node) {
+        return connective(NEGATION, node, null);
+    }
+
+    /**
+     * Looks up the canonical node consisting of a connective with the given children without creating it.
+     * @param connective The connective of the node.
+     * @param left The canonical left child of the node.
+     * @param right The canonical right child of the node, null for unary connectives.
+     * @return The canonical node or null if no formula contains such a node.
+     */
+    public static ConnectiveNode find(Connective connective, Node left, Node right) {
+        return (ConnectiveNode) lookup(new Key(connective.getSymbol(), left, right));
+    }
+
+    /**
+     * Returns the canonical instance of a node that is structurally equal to the given node. If no such node exists
+     * yet, the given node becomes the canonical one. This is also used to canonicalize deserialized nodes.
+     * @param node The node that gets interned. Its children have to be canonical already.
+     * @return The canonical instance of the node.
+     */
+    static Node intern(Node node) {
+        if (node.getKey() != null) return node;
+        Key key = new Key(node.printValue(), node.getLeft(), node.getRight());
+        Node existing = lookup(key);
+        return existing != null ? existing : register(node, key);
+    }
+
+    /**
+     * Looks up the canonical node for a key without creating it.
+     * @param key The structural key of the node.
+     * @return The canonical node or null if no such node exists.
+     */
+    private static Node lookup(Key key) {
+        NodeReference reference = nodes.get(key);
+        return reference == null ? null : reference.get();
+    }
+
+    /**
+     * Registers a node as the canonical node for a key and assigns it a unique id. If another thread registered a
+     * node with the same key in the meantime, that node is returned instead.
+     * @param node The node that becomes canonical.
+     * @param key The structural key of the node.
+     * @return The canonical node for the key.
+     */
+    private static Node register(Node node, Key key) {
+        removeCollectedNodes();
+        node.canonicalize(key, nextId.getAndIncrement());
+        NodeReference reference = new NodeReference(node, key);
+        while (true) {
+            NodeReference existing = nodes.putIfAbsent(key, reference);
+            if (existing == null) return node;
+            Node existingNode = existing.get();
+            if (existingNode != null) return existingNode;
+            nodes.remove(key, existing);
+        }
+    }
+
+    /**
+     * Removes the entries of nodes that got garbage collected from the factory.
+     */
+    private static void removeCollectedNodes() {
+        Reference<? extends Node> reference;
+        while ((reference = collectedNodes.poll()) != null) {
+            NodeReference nodeReference = (NodeReference) reference;
+            nodes.remove(nodeReference.key, nodeReference);
+        }
+    }
+
+    /**
+     * Computes the structural hash of a node out of its symbol and the hashes of its children.
+     * @param symbol The printed symbol of the node.
+     * @param left The left child of the node or null.
+     * @param right The right child of the node or null.
+     * @return The structural hash of the node.
+     */
+    private static int hash(String symbol, Node left, Node right) {
+        int hash = symbol.hashCode();
+        hash = 31 * hash + (left == null ? 0 : left.hashCode());
+        hash = 31 * hash + (right == null ? 0 : right.hashCode());
+        return hash;
+    }
+}
@@ -1,30 +1,28 @@
 package generator.tree;
 
 import lombok.Getter;
-import lombok.Setter;
 
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.*;
 
 /**
- * A class that implements a tree that is used to represent a formula.
+ * A class that implements a tree that is used to represent a formula. A tree cannot be changed, so it can be shared by
+ * all formulas with the same root (see {@link Node#getTree()}).
  */
-@Setter
 @Getter
 public class Tree implements Serializable {
 
     @Serial
     private static final long serialVersionUID = 21L;
 
-    private Node root;
+    private final Node root;
 
     /**
      * Constructor for a tree.
      * @param root The root of the tree.
      */
     public Tree(Node root) {
-        this.setRoot(root);
+        this.root = root;
     }
 
     /**
@@ -36,11 +34,22 @@ public class Tree implements Serializable {
     }
 
     /**
-     * A method that compares a tree with another tree.
+     * A method that compares a tree with another tree. Since the nodes of the trees are hash-consed by the node
+     * factory, the trees are equal exactly if they share the same canonical root.
      * @param otherTree The tree that this tree gets compared to.
      * @return A boolean variable indicating whether the trees are consisting of equal roots.
      */
     public boolean equals(Tree otherTree){
-        return Objects.equals(getString(), otherTree.getString());
+        return otherTree != null && root == otherTree.getRoot();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        return object instanceof Tree && equals((Tree) object);
+    }
+
+    @Override
+    public int hashCode() {
+        return root.hashCode();
     }
 }
\ No newline at end of file
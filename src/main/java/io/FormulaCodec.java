@@ -0,0 +1,102 @@
+package io;
+
+import generator.connectives.Connective;
+import generator.connectives.unary.Belief;
+import generator.connectives.unary.Negation;
+import generator.connectives.unary.Possibility;
+import generator.formula.Formula;
+import generator.formula.FormulaGenerator;
+import generator.formula.PropAtom;
+import generator.tree.Node;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+
+/**
+ * A class that encodes formulas in a compact prefix notation and decodes them again. Every atom and connective of a
+ * formula is written as a single byte code, starting with the main connective and followed by the encodings of its
+ * left and right subformula.
+ */
+public class FormulaCodec {
+
+    private static final PropAtom[] ATOMS = PropAtom.values();
+    private static final Connective[] CONNECTIVES = FormulaGenerator.createConnectives().toArray(new Connective[0]);
+
+    /**
+     * The byte codes of the printed symbols of all atoms and connectives. Atoms get the codes 0 to 2, connectives
+     * follow in the order of the connectives array.
+     */
+    private static final HashMap<String, Byte> CODES = new HashMap<>();
+
+    static {
+        for (PropAtom atom : ATOMS) CODES.put(atom.getSymbol(), (byte) atom.ordinal());
+        for (int i = 0; i < CONNECTIVES.length; i++) CODES.put(CONNECTIVES[i].getSymbol(), (byte) (ATOMS.length + i));
+    }
+
+    /**
+     * Private constructor, the codec only offers static methods.
+     */
+    private FormulaCodec() {}
+
+    /**
+     * A method that encodes a formula in prefix notation.
+     * @param formula The formula that gets encoded.
+     * @return The byte codes of the formula in prefix notation.
+     */
+    public static byte[] encode(Formula formula) {
+        ByteArrayOutputStream codes = new ByteArrayOutputStream(formula.getComplexity().getNrConnectives() + 1);
+        encode(formula.getFormulaTree().getRoot(), codes);
+        return codes.toByteArray();
+    }
+
+    /**
+     * A recursive method that writes the codes of a node and its children in prefix notation.
+     * @param node The node that gets encoded.
+     * @param codes The stream that the codes are written to.
+     */
+    private static void encode(Node node, ByteArrayOutputStream codes) {
+        codes.write(code(node));
+        if (node.getLeft() != null) encode(node.getLeft(), codes);
+        if (node.getRight() != null) encode(node.getRight(), codes);
+    }
+
+    /**
+     * Getter for the byte code of a node.
+     * @param node The node whose code is requested.
+     * @return The code of the atom or connective on the node.
+     */
+    public static byte code(Node node) {
+        Byte code = CODES.get(node.printValue());
+        if (code == null) throw new IllegalArgumentException("Unknown symbol " + node.printValue());
+        return code;
+    }
+
+    /**
+     * A method that decodes a formula out of its prefix notation.
+     * @param codes The byte codes of the formula in prefix notation.
+     * @return The decoded formula.
+     */
+    public static Formula decode(byte[] codes) {
+        int[] position = {0};
+        Formula formula = decode(codes, position);
+        if (position[0] != codes.length) throw new IllegalArgumentException("Trailing codes after formula");
+        return formula;
+    }
+
+    /**
+     * A recursive method that decodes the formula that starts at a position of the codes.
+     * @param codes The byte codes in prefix notation.
+     * @param position The position of the next code, it gets moved behind the decoded formula.
+     * @return The decoded formula.
+     */
+    private static Formula decode(byte[] codes, int[] position) {
+        int code = codes[position[0]++];
+        if (code < ATOMS.length) return new Formula(ATOMS[code]);
+        Connective connective = CONNECTIVES[code - ATOMS.length];
+        Formula left = decode(codes, position);
+        if (connective instanceof Negation || connective instanceof Belief || connective instanceof Possibility) {
+            return new Formula(connective, left);
+        }
+        return new Formula(connective, left, decode(codes, position));
+    }
+}
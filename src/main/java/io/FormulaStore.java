@@ -0,0 +1,342 @@
+package io;
+
+import generator.formula.Formula;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * A class that implements an append-only file of formulas. Each formula is stored as a record consisting of a flag
+ * byte, the number of codes and the codes of the formula in prefix notation (see {@link FormulaCodec}). A separate
+ * index file contains the offset of every record, so formulas can be read by their index without reading the whole
+ * file. Formulas that got consumed (e.g. by the solver) are marked with a tombstone flag instead of rewriting the file.
+ * <p>
+ * Data file: {@code magic (int) | version (byte) | records}, record: {@code flags (byte) | size (short) | codes}.
+ * Index file: {@code live count (long) | cursor (long) | offsets (long)}. The cursor is the index of the first record
+ * that might still be live. The tombstones are read into memory once a formula is taken or consumed, so a random live
+ * formula can be taken without searching the files for it.
+ */
+public class FormulaStore implements Closeable {
+
+    private static final int MAGIC = 0x44584C46;
+    private static final byte VERSION = 1;
+    private static final int DATA_HEADER = 5;
+    static final int INDEX_HEADER = 16;
+    static final int RECORD_HEADER = 3;
+
+    /**
+     * The flag bits of a record. The lower bits contain the status of the formula.
+     */
+    static final int TOMBSTONE = 0x80;
+    static final int STATUS_MASK = 0x0F;
+
+    private final RandomAccessFile data;
+    private final RandomAccessFile index;
+    private long size;
+    private long liveCount;
+    private long cursor;
+
+    /**
+     * The live formulas, which are loaded once a formula is taken or consumed: the indices of the live formulas (the
+     * first {@code liveCount} entries) and the position of every formula in these indices, -1 if it was consumed. A
+     * consumed formula is replaced by the last live formula, so a random live formula is found in constant time.
+     */
+    private int[] liveIndices;
+    private int[] livePositions;
+
+    /**
+     * Constructor of a formula store that opens the files of the store and creates them if they do not exist.
+     * @param file The data file of the store, the index file gets the suffix {@code .idx}.
+     * @throws IOException An exception that is thrown if the files cannot be opened or are no formula store.
+     */
+    public FormulaStore(File file) throws IOException {
+        data = new RandomAccessFile(file, "rw");
+        index = new RandomAccessFile(indexFile(file), "rw");
+        if (data.length() == 0) {
+            initialize();
+        } else if (data.readInt() != MAGIC || data.readByte() != VERSION) {
+            close();
+            throw new IOException(file + " is not a formula store");
+        } else {
+            liveCount = index.readLong();
+            cursor = index.readLong();
+            size = (index.length() - INDEX_HEADER) / Long.BYTES;
+        }
+    }
+
+    /**
+     * Getter for the index file belonging to a data file.
+     * @param file The data file of a store.
+     * @return The index file of the store.
+     */
+    public static File indexFile(File file) {
+        return new File(file.getPath() + ".idx");
+    }
+
+    /**
+     * Getter for the number of records in the store, including consumed ones.
+     * @return The number of records.
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Getter for the number of formulas in the store that have not been consumed yet.
+     * @return The number of live formulas.
+     */
+    public synchronized long liveCount() {
+        return liveCount;
+    }
+
+    /**
+     * A method that appends a formula to the store.
+     * @param formula The formula that gets appended.
+     * @throws IOException An exception that is thrown if the formula cannot be written.
+     */
+    public synchronized void append(Formula formula) throws IOException {
+        appendAll(List.of(formula));
+    }
+
+    /**
+     * A method that appends several formulas to the store with a single write per file.
+     * @param formulas The formulas that get appended.
+     * @throws IOException An exception that is thrown if the formulas cannot be written.
+     */
+    public synchronized void appendAll(List<Formula> formulas) throws IOException {
+        if (formulas.isEmpty()) return;
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        DataOutputStream records = new DataOutputStream(recordBytes);
+        ByteArrayOutputStream offsetBytes = new ByteArrayOutputStream(formulas.size() * Long.BYTES);
+        DataOutputStream offsets = new DataOutputStream(offsetBytes);
+        long offset = data.length();
+        for (Formula formula : formulas) {
+            byte[] codes = FormulaCodec.encode(formula);
+            offsets.writeLong(offset + records.size());
+            records.writeByte(formula.getStatus() & STATUS_MASK);
+            records.writeShort(codes.length);
+            records.write(codes);
+        }
+        data.seek(offset);
+        data.write(recordBytes.toByteArray());
+        index.seek(index.length());
+        index.write(offsetBytes.toByteArray());
+        if (liveIndices != null) {
+            if (size + formulas.size() > liveIndices.length) {
+                int capacity = (int) Math.min(Integer.MAX_VALUE, Math.max(size + formulas.size(), 2 * size));
+                liveIndices = Arrays.copyOf(liveIndices, capacity);
+                livePositions = Arrays.copyOf(livePositions, capacity);
+            }
+            for (long i = size; i < size + formulas.size(); i++) {
+                livePositions[(int) i] = (int) (liveCount + i - size);
+                liveIndices[(int) (liveCount + i - size)] = (int) i;
+            }
+        }
+        size += formulas.size();
+        liveCount += formulas.size();
+        writeIndexHeader();
+    }
+
+    /**
+     * A method that reads a formula by its index.
+     * @param i The index of the formula.
+     * @return The formula with the stored status, also if it has been consumed already.
+     * @throws IOException An exception that is thrown if the formula cannot be read.
+     */
+    public synchronized Formula get(long i) throws IOException {
+        int flags = seekRecord(i);
+        byte[] codes = new byte[data.readUnsignedShort()];
+        data.readFully(codes);
+        Formula formula = FormulaCodec.decode(codes);
+        formula.setStatus(flags & STATUS_MASK);
+        return formula;
+    }
+
+    /**
+     * A method that indicates whether a formula has been consumed.
+     * @param i The index of the formula.
+     * @return A boolean variable indicating whether the formula has been consumed.
+     * @throws IOException An exception that is thrown if the record cannot be read.
+     */
+    public synchronized boolean isConsumed(long i) throws IOException {
+        return (seekRecord(i) & TOMBSTONE) != 0;
+    }
+
+    /**
+     * A method that chooses a random formula that has not been consumed yet and marks it as consumed.
+     * @return A random live formula or null if all formulas have been consumed.
+     * @throws IOException An exception that is thrown if the store cannot be read or written.
+     */
+    public synchronized Formula takeRandom() throws IOException {
+        if (liveCount == 0) return null;
+        loadLive();
+        int i = liveIndices[(int) (Math.random() * liveCount)];
+        Formula formula = get(i);
+        consume(i);
+        return formula;
+    }
+
+    /**
+     * A method that marks a formula as consumed. The formula stays in the files but is not live anymore.
+     * @param i The index of the formula.
+     * @throws IOException An exception that is thrown if the record cannot be written.
+     */
+    public synchronized void consume(long i) throws IOException {
+        int flags = seekRecord(i);
+        if ((flags & TOMBSTONE) != 0) return;
+        loadLive();
+        data.seek(recordOffset(i));
+        data.writeByte(flags | TOMBSTONE);
+        liveCount--;
+        int position = livePositions[(int) i];
+        int last = liveIndices[(int) liveCount];
+        liveIndices[position] = last;
+        livePositions[last] = position;
+        livePositions[(int) i] = -1;
+        while (cursor < size && livePositions[(int) cursor] < 0) cursor++;
+        writeIndexHeader();
+    }
+
+    /**
+     * A method that removes the formulas from the end of the store that were appended after the store had a given
+     * size, e.g. to undo an append that was interrupted.
+     * @param newSize The number of formulas that are kept.
+     * @throws IOException An exception that is thrown if the files cannot be written.
+     */
+    public synchronized void truncate(long newSize) throws IOException {
+        if (newSize >= size) return;
+        data.setLength(recordOffset(newSize));
+        index.setLength(INDEX_HEADER + newSize * Long.BYTES);
+        size = newSize;
+        liveIndices = null;
+        livePositions = null;
+        cursor = Math.min(cursor, size);
+        liveCount = 0;
+        for (long i = cursor; i < size; i++) if (!isConsumed(i)) liveCount++;
+        writeIndexHeader();
+    }
+
+    /**
+     * A method that computes a checksum over the codes of all formulas in the store, independent of their status.
+     * @return The CRC-32 checksum of the formulas.
+     * @throws IOException An exception that is thrown if the data file cannot be read.
+     */
+    public synchronized long checksum() throws IOException {
+        CRC32 crc = new CRC32();
+        data.seek(DATA_HEADER);
+        DataInputStream records = new DataInputStream(new BufferedInputStream(Channels.newInputStream(data.getChannel())));
+        for (long i = 0; i < size; i++) {
+            records.readUnsignedByte();
+            byte[] codes = new byte[records.readUnsignedShort()];
+            records.readFully(codes);
+            crc.update(codes);
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * A method that removes all formulas from the store.
+     * @throws IOException An exception that is thrown if the files cannot be written.
+     */
+    public synchronized void clear() throws IOException {
+        initialize();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            data.close();
+        } finally {
+            index.close();
+        }
+    }
+
+    /**
+     * A method that empties the files and writes the headers of an empty store.
+     * @throws IOException An exception that is thrown if the files cannot be written.
+     */
+    private void initialize() throws IOException {
+        data.setLength(0);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        index.setLength(0);
+        size = 0;
+        liveCount = 0;
+        cursor = 0;
+        liveIndices = null;
+        livePositions = null;
+        writeIndexHeader();
+    }
+
+    /**
+     * A method that loads the live formulas by reading the flags of all records from the cursor on, unless they were
+     * loaded already.
+     * @throws IOException An exception that is thrown if the data file cannot be read or the store is too large.
+     */
+    private void loadLive() throws IOException {
+        if (liveIndices != null) return;
+        if (size > Integer.MAX_VALUE) throw new IOException("Too many formulas to take them at random: " + size);
+        int[] indices = new int[(int) size];
+        int[] positions = new int[(int) size];
+        Arrays.fill(positions, -1);
+        int nrLive = 0;
+        if (cursor < size) {
+            data.seek(recordOffset(cursor));
+            DataInputStream records = new DataInputStream(
+                    new BufferedInputStream(Channels.newInputStream(data.getChannel())));
+            for (long i = cursor; i < size; i++) {
+                int flags = records.readUnsignedByte();
+                records.skipNBytes(records.readUnsignedShort());
+                if ((flags & TOMBSTONE) != 0) continue;
+                positions[(int) i] = nrLive;
+                indices[nrLive++] = (int) i;
+            }
+        }
+        liveIndices = indices;
+        livePositions = positions;
+        liveCount = nrLive;
+    }
+
+    /**
+     * A method that writes the live count and cursor to the index file.
+     * @throws IOException An exception that is thrown if the index file cannot be written.
+     */
+    private void writeIndexHeader() throws IOException {
+        index.seek(0);
+        index.writeLong(liveCount);
+        index.writeLong(cursor);
+    }
+
+    /**
+     * Getter for the offset of a record in the data file.
+     * @param i The index of the record.
+     * @return The offset of the record.
+     * @throws IOException An exception that is thrown if the index is invalid or cannot be read.
+     */
+    private long recordOffset(long i) throws IOException {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException("Index " + i + " of " + size + " formulas");
+        index.seek(INDEX_HEADER + i * Long.BYTES);
+        return index.readLong();
+    }
+
+    /**
+     * A method that moves the data file to a record and reads its flags.
+     * @param i The index of the record.
+     * @return The flags of the record, the data file is positioned at the size of the record.
+     * @throws IOException An exception that is thrown if the record cannot be read.
+     */
+    private int seekRecord(long i) throws IOException {
+        data.seek(recordOffset(i));
+        return data.readUnsignedByte();
+    }
+}
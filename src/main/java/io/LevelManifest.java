@@ -0,0 +1,169 @@
+package io;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * A class that records the progress of the generation of a level (all formulas with the same number of connectives),
+ * so an interrupted generation can be resumed. The manifest contains the count and checksum of every completed work
+ * unit, the sizes of the files that are appended to while the level gets stored, and the count and checksum of the
+ * level once it is complete. Every change is written to the file {@code <level>_nr_connectives.manifest} at once.
+ */
+public class LevelManifest {
+
+    private final File file;
+    private final Properties properties = new Properties();
+
+    /**
+     * Constructor of the manifest of a level, which reads the manifest file if it exists.
+     * @param nrConnectives The number of connectives of the formulas of the level.
+     */
+    public LevelManifest(int nrConnectives) {
+        file = Serializer.file(nrConnectives + "_nr_connectives.manifest");
+        if (file.exists()) {
+            try (Reader reader = new FileReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            } catch (IOException | IllegalArgumentException e) {
+                properties.clear();
+            }
+        }
+    }
+
+    /**
+     * A method that indicates whether the manifest was written with the given generator settings.
+     * @param settings A description of the settings that influence which formulas are generated.
+     * @return A boolean variable indicating whether the settings are the same.
+     */
+    public synchronized boolean hasSettings(String settings) {
+        return settings.equals(properties.getProperty("settings"));
+    }
+
+    /**
+     * A method that removes all progress from the manifest and starts a new generation of the level.
+     * @param settings A description of the settings that influence which formulas are generated.
+     */
+    public synchronized void reset(String settings) {
+        properties.clear();
+        properties.setProperty("settings", settings);
+        save();
+    }
+
+    /**
+     * A method that indicates whether the level was generated and stored completely.
+     * @return A boolean variable indicating whether the level is complete.
+     */
+    public synchronized boolean isComplete() {
+        return properties.containsKey("count");
+    }
+
+    /**
+     * Getter for the number of formulas of the complete level.
+     * @return The number of formulas or -1 if the level is not complete.
+     */
+    public synchronized long getCount() {
+        return getLong("count");
+    }
+
+    /**
+     * Getter for the checksum of the formulas of the complete level.
+     * @return The checksum or -1 if the level is not complete.
+     */
+    public synchronized long getChecksum() {
+        return getLong("checksum");
+    }
+
+    /**
+     * A method that marks the level as complete.
+     * @param count The number of formulas of the level.
+     * @param checksum The checksum of the formulas of the level.
+     */
+    public synchronized void complete(long count, long checksum) {
+        properties.setProperty("count", String.valueOf(count));
+        properties.setProperty("checksum", String.valueOf(checksum));
+        save();
+    }
+
+    /**
+     * A method that indicates whether a work unit was completed with the given result.
+     * @param unit The name of the work unit.
+     * @param count The number of formulas that the output of the unit contains now.
+     * @param checksum The checksum of the output of the unit now.
+     * @return A boolean variable indicating whether the unit is complete and its output unchanged.
+     */
+    public synchronized boolean isUnitComplete(String unit, long count, long checksum) {
+        return getLong("unit." + unit + ".count") == count && getLong("unit." + unit + ".checksum") == checksum;
+    }
+
+    /**
+     * A method that marks a work unit as complete.
+     * @param unit The name of the work unit.
+     * @param count The number of formulas in the output of the unit.
+     * @param checksum The checksum of the output of the unit.
+     */
+    public synchronized void completeUnit(String unit, long count, long checksum) {
+        properties.setProperty("unit." + unit + ".count", String.valueOf(count));
+        properties.setProperty("unit." + unit + ".checksum", String.valueOf(checksum));
+        save();
+    }
+
+    /**
+     * Getter for the size that a file had before the formulas of the level were appended to it.
+     * @param fileName The name of the file.
+     * @return The size of the file or -1 if it was not recorded.
+     */
+    public synchronized long getStoreSize(String fileName) {
+        return getLong("store." + fileName);
+    }
+
+    /**
+     * A method that records the size of a file before the formulas of the level get appended to it.
+     * @param fileName The name of the file.
+     * @param size The number of formulas in the file.
+     */
+    public synchronized void setStoreSize(String fileName, long size) {
+        properties.setProperty("store." + fileName, String.valueOf(size));
+        save();
+    }
+
+    /**
+     * Getter for a number in the manifest.
+     * @param key The key of the number.
+     * @return The number or -1 if it is not set.
+     */
+    private long getLong(String key) {
+        try {
+            return Long.parseLong(properties.getProperty(key, "-1"));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * A method that writes the manifest to a temporary file and replaces the manifest file by it, so the manifest file
+     * is never left half written. If the manifest cannot be written, the progress since the last write gets lost and
+     * is redone after a restart.
+     */
+    private void save() {
+        file.getParentFile().mkdirs();
+        File temporaryFile = new File(file.getPath() + ".tmp");
+        try (Writer writer = new FileWriter(temporaryFile, StandardCharsets.UTF_8)) {
+            properties.store(writer, null);
+        } catch (IOException e) {
+            return;
+        }
+        try {
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            return;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package io;
+
+import generator.formula.Formula;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * A read-only list view of the formulas in a formula store (see {@link FormulaStore}) that maps the files into memory
+ * instead of loading them. Formulas are only decoded when they are requested, so the list can be much larger than the
+ * heap. The view contains the formulas that were in the store when it was opened, including consumed ones.
+ * <p>
+ * Files larger than a single mapping are mapped in overlapping segments, so every record lies completely inside the
+ * segment in which it starts. The mappings stay alive until the list gets closed or garbage collected, a file should
+ * only be deleted after its list was closed.
+ */
+public class MappedFormulaList extends AbstractList<Formula> implements RandomAccess, Closeable {
+
+    private static final int MAX_RECORD = FormulaStore.RECORD_HEADER + 0xFFFF;
+    private static final long SEGMENT = 1L << 30;
+
+    /**
+     * The JDK-internal method that releases the mapping of a buffer right away, null if it is not available. Without
+     * it, a mapping is only released once its buffer gets garbage collected.
+     */
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final MappedByteBuffer[] dataSegments;
+    private final MappedByteBuffer[] indexSegments;
+    private final int size;
+    private volatile boolean closed;
+
+    /**
+     * Constructor of the mapped view of a formula store.
+     * @param file The data file of the store.
+     * @throws IOException An exception that is thrown if the files cannot be mapped.
+     */
+    public MappedFormulaList(File file) throws IOException {
+        dataSegments = map(file);
+        File indexFile = FormulaStore.indexFile(file);
+        indexSegments = map(indexFile);
+        size = (int) Math.max(0, (indexFile.length() - FormulaStore.INDEX_HEADER) / Long.BYTES);
+    }
+
+    /**
+     * A method that maps a file into memory in segments.
+     * @param file The file that gets mapped.
+     * @return The mapped segments of the file.
+     * @throws IOException An exception that is thrown if the file cannot be mapped.
+     */
+    private static MappedByteBuffer[] map(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long length = channel.size();
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) Math.max(1, (length + SEGMENT - 1) / SEGMENT)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = i * SEGMENT;
+                long end = Math.min(length, start + SEGMENT + MAX_RECORD);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.max(0, end - start));
+            }
+            return segments;
+        }
+    }
+
+    /**
+     * A method that releases the mappings of the files, so they do not keep using disk space and address space until
+     * the list gets garbage collected. The formulas that were decoded before stay valid, but the list cannot be used
+     * anymore.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        unmap(dataSegments);
+        unmap(indexSegments);
+    }
+
+    /**
+     * A method that releases the mappings of segments and drops the references to them.
+     * @param segments The segments that get released.
+     */
+    private static void unmap(MappedByteBuffer[] segments) {
+        for (int i = 0; i < segments.length; i++) {
+            if (INVOKE_CLEANER != null) {
+                try {
+                    INVOKE_CLEANER.invoke(UNSAFE, segments[i]);
+                } catch (ReflectiveOperationException | RuntimeException e) {
+                    // the mapping gets released once the segment is garbage collected
+                }
+            }
+            segments[i] = null;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * A method that decodes a formula by its index.
+     * @param i The index of the formula.
+     * @return The decoded formula with its stored status.
+     */
+    @Override
+    public Formula get(int i) {
+        if (closed) throw new IllegalStateException("The list of formulas is closed");
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException("Index " + i + " of " + size + " formulas");
+        long indexPosition = FormulaStore.INDEX_HEADER + (long) i * Long.BYTES;
+        long offset = indexSegments[(int) (indexPosition / SEGMENT)].getLong((int) (indexPosition % SEGMENT));
+        MappedByteBuffer segment = dataSegments[(int) (offset / SEGMENT)];
+        int position = (int) (offset % SEGMENT);
+        int flags = segment.get(position) & 0xFF;
+        byte[] codes = new byte[segment.getShort(position + 1) & 0xFFFF];
+        segment.get(position + FormulaStore.RECORD_HEADER, codes);
+        Formula formula = FormulaCodec.decode(codes);
+        formula.setStatus(flags & FormulaStore.STATUS_MASK);
+        return formula;
+    }
+}
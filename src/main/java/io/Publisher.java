@@ -53,10 +53,8 @@ public class Publisher implements Runnable {
                     Thread.sleep(3600000);
                 } else {
                     try {
-                        int randomIndex = (int)(Math.random() * solver.getTautologies().size());
                         Thread.sleep(300000);
-                        String tweet = solver.getTautologies().get(randomIndex).getFormulaTree().getString();
-                        solver.getTautologies().remove(randomIndex);
+                        String tweet = solver.getTautologies().takeRandom().getFormulaTree().getString();
                         twitter.updateStatus(tweet);
                         Thread.sleep(10500000);
                     } catch(Exception e) {
@@ -0,0 +1,495 @@
+package io;
+
+import generator.formula.Canonicalizer;
+import generator.formula.Formula;
+import lombok.Getter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A cache of the results of the solver, keyed by the canonical form of a formula (see {@link Canonicalizer}), so
+ * formulas that only differ by the order of the operands of ∧, ∨ and ⇿ or by the names of the agents are solved only
+ * once, also across restarts. The results are kept in two tiers: the most recently used results in memory and all
+ * results in the append-only file {@code results.cache}. Only the offsets of the records in the file are kept in
+ * memory, a record is read once its result is requested and not in memory anymore. If a formula is solved again, its
+ * new record replaces the old one. If the file cannot be opened, the cache only keeps the results in memory.
+ * <p>
+ * New records are collected in a buffer that is appended to the file once it is full, once it is older than a second
+ * or when {@link #flush()} is called, so the results of the last second get lost if the program gets killed. The file
+ * is read and written with positional operations outside the lock of the cache, so the workers of the solver do not
+ * wait for each other's disk I/O. When the cache is opened and more than half of the records of the file were
+ * replaced, the file is compacted to the records that are still used.
+ * <p>
+ * The file records the version of the solver that computed the results. A file of another solver version is discarded
+ * when the cache is opened, since the solver may decide formulas differently now. Results of formulas that exhausted
+ * the budget of the solver are only reused in the run in which they were computed, since the budget can change with
+ * the settings.
+ * <p>
+ * File: {@code magic (int) | version (byte) | solver version (int) | records}, record: {@code size (short) | codes |
+ * status (byte) | factor (int) | steps (long) | time (long)}.
+ */
+public class ResultCache {
+
+    private static final int MAGIC = 0x44584C52;
+    private static final byte VERSION = 2;
+    private static final int HEADER = 9;
+
+    /**
+     * The number of bytes of a record after its codes.
+     */
+    private static final int RECORD_TAIL = 1 + Integer.BYTES + 2 * Long.BYTES;
+
+    /**
+     * The size in bytes and the age in nanoseconds at which the buffer of new records is appended to the file.
+     */
+    private static final int FLUSH_SIZE = 64 * 1024;
+    private static final long FLUSH_INTERVAL = 1_000_000_000L;
+
+    /**
+     * The minimum number of records of a file that gets compacted.
+     */
+    private static final int COMPACTION_MIN = 1024;
+
+    private final LinkedHashMap<String, Result> recentResults;
+    private OffsetIndex offsets = new OffsetIndex();
+    private final FileChannel data;
+
+    /**
+     * The length of the file including the records in the buffer and the records that are being appended.
+     */
+    private long end;
+
+    /**
+     * The records that are not appended to the file yet, the offset of the first of them and the time at which the
+     * first of them was added.
+     */
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private long bufferOffset;
+    private long bufferTime;
+
+    /**
+     * The results whose records are not completely written to the file yet, by the canonical codes of their formulas.
+     */
+    private final HashMap<String, Result> unwrittenResults = new HashMap<>();
+    private HashMap<String, Result> bufferResults = new HashMap<>();
+
+    /**
+     * The lock of the thread that appends records to the file.
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * The result of solving a formula.
+     */
+    @Getter
+    public static final class Result {
+
+        /**
+         * The status of the formula, see {@link Formula#getStatus()}.
+         */
+        private final int status;
+
+        /**
+         * The factor by which the limits of the budget of the solver were multiplied.
+         */
+        private final int factor;
+
+        /**
+         * The number of rule applications of the tableau.
+         */
+        private final long steps;
+
+        /**
+         * The time in milliseconds that solving the tableau took.
+         */
+        private final long time;
+
+        /**
+         * Constructor of the result of solving a formula.
+         * @param status The status of the formula.
+         * @param factor The factor by which the limits of the budget of the solver were multiplied.
+         * @param steps The number of rule applications of the tableau.
+         * @param time The time in milliseconds that solving the tableau took.
+         */
+        public Result(int status, int factor, long steps, long time) {
+            this.status = status;
+            this.factor = factor;
+            this.steps = steps;
+            this.time = time;
+        }
+    }
+
+    /**
+     * Constructor of the result cache, which opens the file of the cache and creates it if it does not exist or was
+     * written by another version of the solver.
+     * @param maxSize The maximum number of results that are kept in memory.
+     * @param solverVersion The version of the solver whose results are cached.
+     */
+    public ResultCache(int maxSize, int solverVersion) {
+        recentResults = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Result> eldest) {
+                return size() > maxSize;
+            }
+        };
+        data = open(Serializer.file("results.cache"), solverVersion);
+    }
+
+    /**
+     * Getter for the result of a formula or of a formula with the same canonical form.
+     * @param formula The formula.
+     * @return The result of the formula or null if it was not solved before.
+     */
+    public Result get(Formula formula) {
+        byte[] codes = codes(formula);
+        String key = key(codes);
+        long offset;
+        synchronized (this) {
+            Result result = recentResults.get(key);
+            if (result == null) result = unwrittenResults.get(key);
+            if (result != null || data == null) return result;
+            offset = offsets.get(hash(codes));
+        }
+        if (offset < 0) return null;
+        Result result;
+        try {
+            ByteBuffer record = ByteBuffer.allocate(Short.BYTES + codes.length + RECORD_TAIL);
+            while (record.hasRemaining()) {
+                if (data.read(record, offset + record.position()) < 0) return null;
+            }
+            record.flip();
+            if (Short.toUnsignedInt(record.getShort()) != codes.length) return null;
+            byte[] recordCodes = new byte[codes.length];
+            record.get(recordCodes);
+            if (!Arrays.equals(codes, recordCodes)) return null;
+            result = new Result(Byte.toUnsignedInt(record.get()), record.getInt(), record.getLong(), record.getLong());
+        } catch (IOException e) {
+            return null;
+        }
+        synchronized (this) {
+            recentResults.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * A method that stores the result of a formula. Its record is appended to the file together with the records
+     * that were stored before it once the buffer is full or old enough, unless another thread is appending records.
+     * @param formula The formula.
+     * @param result The result of solving the formula.
+     */
+    public void put(Formula formula, Result result) {
+        byte[] codes = codes(formula);
+        String key = key(codes);
+        ByteBuffer record = ByteBuffer.allocate(Short.BYTES + codes.length + RECORD_TAIL);
+        record.putShort((short) codes.length).put(codes).put((byte) result.getStatus()).putInt(result.getFactor())
+                .putLong(result.getSteps()).putLong(result.getTime());
+        boolean full;
+        synchronized (this) {
+            recentResults.put(key, result);
+            if (data == null) return;
+            if (buffer.size() == 0) {
+                bufferOffset = end;
+                bufferTime = System.nanoTime();
+            }
+            buffer.write(record.array(), 0, record.capacity());
+            offsets.put(hash(codes), end);
+            end += record.capacity();
+            unwrittenResults.put(key, result);
+            bufferResults.put(key, result);
+            full = buffer.size() >= FLUSH_SIZE || System.nanoTime() - bufferTime >= FLUSH_INTERVAL;
+        }
+        if (full && writeLock.tryLock()) {
+            try {
+                write();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * A method that appends the records that were stored since the last append to the file.
+     */
+    public void flush() {
+        writeLock.lock();
+        try {
+            write();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * A method that takes the records out of the buffer and writes them to the file, the caller has to hold the write
+     * lock, so the records get appended in order. Only taking the records needs the lock of the cache, so results can
+     * be read and stored while the records are written.
+     */
+    private void write() {
+        long offset;
+        byte[] records;
+        HashMap<String, Result> results;
+        synchronized (this) {
+            if (data == null || buffer.size() == 0) return;
+            offset = bufferOffset;
+            records = buffer.toByteArray();
+            results = bufferResults;
+            buffer = new ByteArrayOutputStream();
+            bufferResults = new HashMap<>();
+        }
+        try {
+            ByteBuffer recordBuffer = ByteBuffer.wrap(records);
+            while (recordBuffer.hasRemaining()) data.write(recordBuffer, offset + recordBuffer.position());
+        } catch (IOException e) {
+            return;
+        }
+        synchronized (this) {
+            for (Map.Entry<String, Result> entry : results.entrySet()) {
+                unwrittenResults.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * A method that opens the file of the cache and reads the offsets of its records. A file that was written by
+     * another version of the solver or is no result cache gets emptied, a file with many replaced records gets
+     * compacted.
+     * @param file The file of the cache.
+     * @param solverVersion The version of the solver whose results are cached.
+     * @return The channel of the file or null if the file cannot be opened.
+     */
+    private FileChannel open(File file, int solverVersion) {
+        try {
+            file.getParentFile().mkdirs();
+            RandomAccessFile cache = new RandomAccessFile(file, "rw");
+            if (cache.length() < HEADER || cache.readInt() != MAGIC || cache.readByte() != VERSION
+                    || cache.readInt() != solverVersion) {
+                cache.setLength(0);
+                cache.writeInt(MAGIC);
+                cache.writeByte(VERSION);
+                cache.writeInt(solverVersion);
+            } else {
+                int nrRecords = readOffsets(cache);
+                if (nrRecords >= COMPACTION_MIN && nrRecords > 2 * offsets.size()) {
+                    cache = compact(file, cache, solverVersion);
+                }
+            }
+            end = cache.length();
+            return cache.getChannel();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A method that reads the offsets of all records of the file, except for the records of formulas that exhausted the
+     * budget. A record at the end of the file that was not written completely gets removed.
+     * @param cache The file of the cache.
+     * @return The number of records of the file.
+     * @throws IOException An exception that is thrown if the file cannot be read.
+     */
+    private int readOffsets(RandomAccessFile cache) throws IOException {
+        cache.seek(HEADER);
+        DataInputStream records = new DataInputStream(
+                new BufferedInputStream(Channels.newInputStream(cache.getChannel())));
+        long offset = HEADER;
+        int nrRecords = 0;
+        while (offset < cache.length()) {
+            try {
+                byte[] codes = new byte[records.readUnsignedShort()];
+                records.readFully(codes);
+                int status = records.readUnsignedByte();
+                records.skipNBytes(RECORD_TAIL - 1);
+                if (status != 3) offsets.put(hash(codes), offset);
+                offset += Short.BYTES + codes.length + RECORD_TAIL;
+                nrRecords++;
+            } catch (EOFException e) {
+                cache.setLength(offset);
+            }
+        }
+        return nrRecords;
+    }
+
+    /**
+     * A method that rewrites the file with only the records that are still used. The records are written to a
+     * temporary file that replaces the file afterwards, if that fails the file stays as it is.
+     * @param file The file of the cache.
+     * @param cache The opened file of the cache, which gets closed.
+     * @param solverVersion The version of the solver whose results are cached.
+     * @return The opened compacted file.
+     * @throws IOException An exception that is thrown if the file cannot be opened again.
+     */
+    private RandomAccessFile compact(File file, RandomAccessFile cache, int solverVersion) throws IOException {
+        File temporaryFile = new File(file.getPath() + ".tmp");
+        OffsetIndex compactedOffsets = new OffsetIndex();
+        try (DataOutputStream records = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+            records.writeInt(MAGIC);
+            records.writeByte(VERSION);
+            records.writeInt(solverVersion);
+            long compactedOffset = HEADER;
+            for (long offset : offsets.sortedOffsets()) {
+                cache.seek(offset);
+                byte[] codes = new byte[cache.readUnsignedShort()];
+                cache.readFully(codes);
+                byte[] tail = new byte[RECORD_TAIL];
+                cache.readFully(tail);
+                compactedOffsets.put(hash(codes), compactedOffset);
+                records.writeShort(codes.length);
+                records.write(codes);
+                records.write(tail);
+                compactedOffset += Short.BYTES + codes.length + RECORD_TAIL;
+            }
+        } catch (IOException e) {
+            temporaryFile.delete();
+            return cache;
+        }
+        cache.close();
+        try {
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            offsets = compactedOffsets;
+        } catch (IOException e) {
+            temporaryFile.delete();
+        }
+        return new RandomAccessFile(file, "rw");
+    }
+
+    /**
+     * Getter for the key of a formula in memory.
+     * @param codes The codes of the canonical form of the formula.
+     * @return The codes as a string.
+     */
+    private static String key(byte[] codes) {
+        return new String(codes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Getter for the codes of the canonical form of a formula.
+     * @param formula The formula.
+     * @return The codes of the canonical form in prefix notation (see {@link FormulaCodec}).
+     */
+    private static byte[] codes(Formula formula) {
+        return FormulaCodec.encode(Canonicalizer.reduceAgents(formula));
+    }
+
+    /**
+     * A method that computes a 64-bit FNV-1a hash of the codes of a formula.
+     * @param codes The codes of the formula.
+     * @return The hash of the codes.
+     */
+    private static long hash(byte[] codes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte code : codes) {
+            hash ^= code & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * A hash table with open addressing from the hashes of the codes of formulas to the offsets of their records. Two
+     * formulas with the same hash share an entry, the record of the formula that was stored last wins.
+     */
+    private static final class OffsetIndex {
+
+        private long[] hashes = new long[1024];
+        private long[] offsets = new long[1024];
+        private int size;
+
+        /**
+         * Getter for the offset of the record of a hash.
+         * @param hash The hash of the codes of a formula.
+         * @return The offset of the record or -1 if there is no record.
+         */
+        long get(long hash) {
+            hash = hash == 0 ? 1 : hash;
+            for (int i = slot(hash, hashes.length); hashes[i] != 0; i = (i + 1) & (hashes.length - 1)) {
+                if (hashes[i] == hash) return offsets[i];
+            }
+            return -1;
+        }
+
+        /**
+         * A method that sets the offset of the record of a hash.
+         * @param hash The hash of the codes of a formula.
+         * @param offset The offset of the record.
+         */
+        void put(long hash, long offset) {
+            hash = hash == 0 ? 1 : hash;
+            if (2 * (size + 1) > hashes.length) grow();
+            int i = slot(hash, hashes.length);
+            while (hashes[i] != 0 && hashes[i] != hash) i = (i + 1) & (hashes.length - 1);
+            if (hashes[i] == 0) size++;
+            hashes[i] = hash;
+            offsets[i] = offset;
+        }
+
+        /**
+         * Getter for the number of hashes in the table.
+         * @return The number of hashes.
+         */
+        int size() {
+            return size;
+        }
+
+        /**
+         * Getter for the offsets of all records in the table.
+         * @return The offsets in ascending order.
+         */
+        long[] sortedOffsets() {
+            long[] sorted = new long[size];
+            int n = 0;
+            for (int i = 0; i < hashes.length; i++) if (hashes[i] != 0) sorted[n++] = offsets[i];
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        /**
+         * A method that doubles the size of the table.
+         */
+        private void grow() {
+            long[] oldHashes = hashes;
+            long[] oldOffsets = offsets;
+            hashes = new long[2 * oldHashes.length];
+            offsets = new long[2 * oldOffsets.length];
+            for (int j = 0; j < oldHashes.length; j++) {
+                if (oldHashes[j] == 0) continue;
+                int i = slot(oldHashes[j], hashes.length);
+                while (hashes[i] != 0) i = (i + 1) & (hashes.length - 1);
+                hashes[i] = oldHashes[j];
+                offsets[i] = oldOffsets[j];
+            }
+        }
+
+        /**
+         * Getter for the first slot of a hash.
+         * @param hash The hash.
+         * @param length The number of slots, a power of two.
+         * @return The first slot in which the hash is looked for.
+         */
+        private static int slot(long hash, int length) {
+            return (int) (hash ^ (hash >>> 32)) & (length - 1);
+        }
+    }
+}
@@ -4,56 +4,214 @@ import generator.formula.Formula;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * A class that represents a serializer that handles the storing and loading of formulas to files.
+ * A class that represents a serializer that handles the storing and loading of formulas to files. The formulas are
+ * stored in formula stores (see {@link FormulaStore}), which stay open once they were used, so that all threads access
+ * a file through the same store.
  */
 public class Serializer {
 
+    private static final File saveDirectory = new File("formulas");
+    private static final ConcurrentHashMap<String, FormulaStore> stores = new ConcurrentHashMap<>();
+
+    /**
+     * A method that returns the open formula store of a file and opens it if necessary.
+     * @param fileName The name of the file of the store.
+     * @param create A boolean variable indicating whether the file should be created if it does not exist.
+     * @return The formula store or null if it does not exist or cannot be opened.
+     */
+    public static FormulaStore getStore(String fileName, boolean create) {
+        FormulaStore store = stores.get(fileName);
+        if (store != null) return store;
+        File file = file(fileName);
+        if (!create && !file.exists()) return null;
+        saveDirectory.mkdir();
+        try {
+            return stores.computeIfAbsent(fileName, name -> {
+                try {
+                    return new FormulaStore(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            return null;
+        }
+    }
+
     /**
-     * A method that stores a single formula to a file.
+     * Getter for a file in the directory of the formulas.
+     * @param fileName The name of the file.
+     * @return The file in the directory of the formulas.
+     */
+    static File file(String fileName) {
+        return new File(saveDirectory, fileName);
+    }
+
+    /**
+     * A method that stores a single formula to a file by appending it to the file.
      * @param formula The formula that should be stored.
      * @param fileName The name of the file that the formula should be stored in.
      */
     public static void saveFormulasSingle(Formula formula, String fileName) {
-        File saveDirectory = new File("formulas");
-        saveDirectory.mkdir();
-        try (FileOutputStream fileOutputStream = new FileOutputStream(saveDirectory + File.separator + fileName, true);
-             ObjectOutputStream objectOutputStream = new ObjectOutputStream(fileOutputStream)) {
-            objectOutputStream.writeObject(formula);
-        } catch (Exception e) {
+        FormulaStore store = getStore(fileName, true);
+        if (store == null) return;
+        try {
+            store.append(formula);
+        } catch (IOException e) {
             return;
         }
     }
 
     /**
-     * A method that stores several formulas to a file.
+     * A method that stores several formulas to a file by appending them to the file.
+     * @param formulas The formulas that should be stored.
+     * @param fileName The name of the file that the formulas should be stored in.
+     */
+    public static void appendFormulas(ArrayList<Formula> formulas, String fileName) {
+        FormulaStore store = getStore(fileName, true);
+        if (store == null) return;
+        try {
+            store.appendAll(formulas);
+        } catch (IOException e) {
+            return;
+        }
+    }
+
+    /**
+     * A method that stores several formulas to a file, replacing the formulas that were stored in the file before.
      * @param formula A list of formulas that should be stored.
      * @param fileName The name of the file that the formulas should be stored in.
      */
     public static void saveFormulas(ArrayList<Formula> formula, String fileName) {
-        File saveDirectory = new File("formulas");
-        saveDirectory.mkdir();
-        try (FileOutputStream fileOutputStream = new FileOutputStream(saveDirectory + File.separator + fileName);
-             ObjectOutputStream objectOutputStream = new ObjectOutputStream(fileOutputStream)) {
-            objectOutputStream.writeObject(formula);
-        } catch (Exception e) {
+        FormulaStore store = getStore(fileName, true);
+        if (store == null) return;
+        try {
+            synchronized (store) {
+                store.clear();
+                store.appendAll(formula);
+            }
+        } catch (IOException e) {
             return;
         }
     }
 
     /**
-     * A method that loads formulas from a specific file.
+     * A method that loads the formulas from a specific file that have not been consumed yet.
      * @param fileName The name of the file that the formulas should be loaded from.
-     * @return A list of the formulas that were loaded.
+     * @return A list of the formulas that were loaded or null if the file does not exist.
      */
     public static ArrayList<Formula> loadFormulas(String fileName) {
-        File saveDirectory = new File("formulas");
-        try (FileInputStream fileInputStream = new FileInputStream(saveDirectory + File.separator + fileName);
-             ObjectInputStream objectInputStream = new ObjectInputStream(fileInputStream)) {
-            return (ArrayList<Formula>) objectInputStream.readObject();
-        } catch (Exception e) {
+        FormulaStore store = getStore(fileName, false);
+        if (store == null) return null;
+        try {
+            synchronized (store) {
+                ArrayList<Formula> formulas = new ArrayList<>();
+                for (long i = 0; i < store.size(); i++) if (!store.isConsumed(i)) formulas.add(store.get(i));
+                return formulas;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A method that opens the formulas of a file as a memory-mapped list, which decodes the formulas only when they
+     * are accessed (see {@link MappedFormulaList}). The list should be closed before the file gets deleted.
+     * @param fileName The name of the file that the formulas should be read from.
+     * @return A read-only list of the formulas in the file or null if the file does not exist.
+     */
+    public static MappedFormulaList openFormulas(String fileName) {
+        File file = file(fileName);
+        if (!file.exists()) return null;
+        try {
+            return new MappedFormulaList(file);
+        } catch (IOException e) {
             return null;
         }
     }
+
+    /**
+     * A method that counts the formulas in a file that have not been consumed yet.
+     * @param fileName The name of the file.
+     * @return The number of formulas left in the file, 0 if the file does not exist.
+     */
+    public static long countFormulas(String fileName) {
+        FormulaStore store = getStore(fileName, false);
+        return store == null ? 0 : store.liveCount();
+    }
+
+    /**
+     * A method that takes a random formula out of a file. The formula is marked as consumed in the file.
+     * @param fileName The name of the file.
+     * @return A random formula that was not consumed yet or null if there is none.
+     */
+    public static Formula takeRandomFormula(String fileName) {
+        FormulaStore store = getStore(fileName, false);
+        if (store == null) return null;
+        try {
+            return store.takeRandom();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A method that counts all formulas in a file, including the ones that have been consumed already.
+     * @param fileName The name of the file.
+     * @return The number of formulas in the file, 0 if the file does not exist.
+     */
+    public static long sizeFormulas(String fileName) {
+        FormulaStore store = getStore(fileName, false);
+        return store == null ? 0 : store.size();
+    }
+
+    /**
+     * A method that computes a checksum over all formulas in a file (see {@link FormulaStore#checksum()}).
+     * @param fileName The name of the file.
+     * @return The checksum of the formulas, 0 if the file does not exist and -1 if it cannot be read.
+     */
+    public static long checksumFormulas(String fileName) {
+        FormulaStore store = getStore(fileName, false);
+        if (store == null) return 0;
+        try {
+            return store.checksum();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * A method that removes the formulas from the end of a file that were stored after the file had a given size.
+     * @param fileName The name of the file.
+     * @param size The number of formulas that are kept.
+     */
+    public static void truncateFormulas(String fileName, long size) {
+        FormulaStore store = getStore(fileName, false);
+        if (store == null) return;
+        try {
+            store.truncate(size);
+        } catch (IOException e) {
+            return;
+        }
+    }
+
+    /**
+     * A method that closes the store of a file and deletes the file.
+     * @param fileName The name of the file.
+     */
+    public static void deleteFormulas(String fileName) {
+        FormulaStore store = stores.remove(fileName);
+        try {
+            if (store != null) store.close();
+        } catch (IOException e) {
+            // the files get deleted anyway
+        }
+        File file = file(fileName);
+        file.delete();
+        FormulaStore.indexFile(file).delete();
+    }
 }
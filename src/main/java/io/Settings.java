@@ -0,0 +1,49 @@
+package io;
+
+/**
+ * A class that reads the settings of the logic bot. Settings are passed as Java system properties, e.g.
+ * {@code mvn exec:java -Dsolver.workers=8}, and fall back to a default value if they are not set or invalid.
+ */
+public class Settings {
+
+    /**
+     * Private constructor, the settings only offer static methods.
+     */
+    private Settings() {}
+
+    /**
+     * A method that reads an integer setting.
+     * @param name The name of the setting.
+     * @param defaultValue The value that is used if the setting is not set or not a number.
+     * @return The value of the setting.
+     */
+    public static int getInt(String name, int defaultValue) {
+        try {
+            return Integer.parseInt(System.getProperty(name, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * A method that reads a boolean setting.
+     * @param name The name of the setting.
+     * @param defaultValue The value that is used if the setting is not set.
+     * @return The value of the setting.
+     */
+    public static boolean getBoolean(String name, boolean defaultValue) {
+        String value = System.getProperty(name);
+        return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * A method that reads a text setting.
+     * @param name The name of the setting.
+     * @param defaultValue The value that is used if the setting is not set.
+     * @return The value of the setting.
+     */
+    public static String getString(String name, String defaultValue) {
+        String value = System.getProperty(name);
+        return value == null ? defaultValue : value.trim();
+    }
+}
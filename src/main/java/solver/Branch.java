@@ -5,15 +5,17 @@ import generator.formula.Formula;
 import generator.formula.InfTableauFormula;
 import generator.formula.TableauFormula;
 import generator.tree.Node;
-import generator.connectives.unary.Belief;
+import generator.tree.NodeFactory;
 import generator.connectives.Connective;
 import generator.connectives.unary.Negation;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.PriorityQueue;
+import java.util.HashMap;
+import java.util.List;
 
 /**
  * A class that implements a branch on a tableau.
@@ -22,7 +24,7 @@ import java.util.PriorityQueue;
 @Setter
 public class Branch {
 
-    private final int STOPTIME = 10000;
+    private static final Negation NEGATION = new Negation();
 
     /**
      * An inner class that implements a comparator for comparing the priority of formulas. This comparator is used
@@ -30,6 +32,16 @@ public class Branch {
      */
     private static class FormulaComparator implements Comparator<TableauFormula> {
 
+        private final PriorityStrategy strategy;
+
+        /**
+         * Constructor of the comparator.
+         * @param strategy The strategy that gives the priorities of the formulas.
+         */
+        FormulaComparator(PriorityStrategy strategy) {
+            this.strategy = strategy;
+        }
+
         /**
          * A method that compares the priorities of two formulas.
          * @param o1 The first tableau formula.
@@ -38,17 +50,38 @@ public class Branch {
          */
         @Override
         public int compare(TableauFormula o1, TableauFormula o2) {
-            return Integer.compare(o1.getPriority(), o2.getPriority());
+            return Integer.compare(strategy.getPriority(o1), strategy.getPriority(o2));
         }
     }
 
-    private PriorityQueue<TableauFormula> leftOverFormulas = new PriorityQueue<>(new Branch.FormulaComparator());
+    /**
+     * The formulas that still have to be solved. Like the formulas on the branch and their indices they are kept in a
+     * persistent collection, so a forked branch shares them with the branch it got forked off instead of copying them.
+     */
+    private PersistentHeap<TableauFormula> leftOverFormulas;
+
+    private PersistentList<TableauFormula> formulasOnBranch = PersistentList.empty();
+    private PersistentList<TableauFormula> negatedFormulasOnBranch = PersistentList.empty();
+
+    /**
+     * Indices of the formulas and negated formulas on the branch, keyed by the id of the canonical formula tree and
+     * the state of the formula. They are used to detect a closed branch when a formula gets added.
+     */
+    private PersistentLongSet formulaKeys = PersistentLongSet.EMPTY;
+    private PersistentLongSet negatedFormulaKeys = PersistentLongSet.EMPTY;
+    private boolean closed = false;
 
-    private ArrayList<TableauFormula> formulasOnBranch = new ArrayList<>();
-    private ArrayList<TableauFormula> negatedFormulasOnBranch = new ArrayList<>();
     private ArrayList<InfTableauFormula> infFormulas = new ArrayList<>();
-    private ArrayList<Agent> agents;
-    private ArrayList<Integer> worlds = new ArrayList<>();
+
+    /**
+     * Index of the formulas that can be re-applied by the agent of their belief operator and their state, so a new
+     * relation only has to be handed to the formulas in the state that it starts from.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private HashMap<Agent, ArrayList<ArrayList<InfTableauFormula>>> infFormulaIndex = new HashMap<>();
+    private List<Agent> agents;
+    private RelationStore relations = new RelationStore();
 
     /**
      * The status of a branch: 0 = it is not solved yet, 1 = it is open & complete, 2 = it is closed.
@@ -58,6 +91,13 @@ public class Branch {
     private TableauFormula currentFormula;
     private Tableau tableau;
 
+    /**
+     * The task that solves the branch if the branches of the tableau are solved in parallel, null otherwise.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    BranchTask task;
+
     /**
      * Constructor of a branch on a tableau.
      * @param tableau The tableau that the branch will be on.
@@ -65,9 +105,10 @@ public class Branch {
      */
     public Branch(Tableau tableau, Formula currentFormula) {
         this.tableau = tableau;
-        leftOverFormulas.add(new TableauFormula(currentFormula));
-        worlds.add(currentFormula.getStatus());
-        agents = new ArrayList<>(currentFormula.getAgents());
+        tableau.countBranch();
+        leftOverFormulas = new PersistentHeap<TableauFormula>(new FormulaComparator(tableau.getPriorityStrategy()))
+                .add(new TableauFormula(currentFormula));
+        agents = List.copyOf(currentFormula.getAgents());
     }
 
     /**
@@ -76,33 +117,120 @@ public class Branch {
      */
     public Branch(Branch copyBranch) {
         this.tableau = copyBranch.getTableau();
-        this.leftOverFormulas = new PriorityQueue<>(copyBranch.getLeftOverFormulas());
-        this.formulasOnBranch = new ArrayList<>(copyBranch.getFormulasOnBranch());
-        this.negatedFormulasOnBranch = new ArrayList<>(copyBranch.getNegatedFormulasOnBranch());
-        this.agents = new ArrayList<>(copyBranch.getAgents());
-        this.worlds = new ArrayList<>(copyBranch.getWorlds());
+        tableau.countBranch();
+        this.leftOverFormulas = copyBranch.getLeftOverFormulas();
+        this.formulasOnBranch = copyBranch.getFormulasOnBranch();
+        this.negatedFormulasOnBranch = copyBranch.getNegatedFormulasOnBranch();
+        this.formulaKeys = copyBranch.getFormulaKeys();
+        this.negatedFormulaKeys = copyBranch.getNegatedFormulaKeys();
+        this.closed = copyBranch.isClosed();
+        this.agents = copyBranch.getAgents();
+        this.relations = copyBranch.getRelations().fork();
         this.currentFormula = null;
-        this.infFormulas = new ArrayList<>(infFormulas);
+        for (InfTableauFormula infFormula : copyBranch.getInfFormulas())
+            addInfFormula(new InfTableauFormula(infFormula));
+    }
+
+    /**
+     * A method that adds a formula that can be re-applied to the branch if the branch does not contain it yet.
+     * @param infFormula The formula that can be re-applied.
+     */
+    public void addInfFormula(InfTableauFormula infFormula) {
+        ArrayList<ArrayList<InfTableauFormula>> states = infFormulaIndex.computeIfAbsent(
+                infFormula.getBelief().getAgent(), agent -> new ArrayList<>());
+        int state = infFormula.getState();
+        while (states.size() <= state) states.add(null);
+        if (states.get(state) == null) states.set(state, new ArrayList<>());
+        for (InfTableauFormula formula : states.get(state)) {
+            if (formula.isEqual(infFormula)) return;
+        }
+        states.get(state).add(infFormula);
+        infFormulas.add(infFormula);
     }
 
     /**
-     * A method that adds a formula to a branch.
-     * @param formulaList The list of formulas on the current branch.
+     * A method that re-applies the formulas in the state that a new relation starts from to the state it leads to.
+     * @param agent The agent of the relation.
+     * @param world1 The first state of the relation.
+     * @param world2 The state that the first state relates to.
+     */
+    private void applyNewRelation(Agent agent, int world1, int world2) {
+        ArrayList<ArrayList<InfTableauFormula>> states = infFormulaIndex.get(agent);
+        if (states == null || world1 >= states.size() || states.get(world1) == null) return;
+        for (InfTableauFormula infFormula : states.get(world1)) infFormula.applyNewRelation(world2, this);
+    }
+
+    /**
+     * A method that adds a formula to the formulas on the branch if it is not on the branch yet. The branch gets
+     * closed if the formula already occurs negated in the same state.
      * @param formula The formula that should be added to the branch.
      */
-    public void addFormula(ArrayList<TableauFormula> formulaList, TableauFormula formula) {
-        if (!containsFormula(formulaList, formula)) formulaList.add(formula);
+    public void addFormulaOnBranch(TableauFormula formula) {
+        long key = key(formula.getFormulaTree().getRoot(), formula.getState());
+        PersistentLongSet keys = formulaKeys.add(key);
+        if (keys == formulaKeys) return;
+        formulaKeys = keys;
+        formulasOnBranch = formulasOnBranch.add(formula);
+        if (negatedFormulaKeys.contains(key)) closed = true;
+    }
+
+    /**
+     * A method that adds a formula to the negated formulas on the branch if it is not on the branch yet. The branch
+     * gets closed if the formula already occurs in the same state, or if the formula and its negation both occur
+     * negated in the same state.
+     * @param formula The formula whose negation should be added to the branch.
+     */
+    public void addNegatedFormulaOnBranch(TableauFormula formula) {
+        Node root = formula.getFormulaTree().getRoot();
+        int state = formula.getState();
+        long key = key(root, state);
+        PersistentLongSet keys = negatedFormulaKeys.add(key);
+        if (keys == negatedFormulaKeys) return;
+        negatedFormulaKeys = keys;
+        negatedFormulasOnBranch = negatedFormulasOnBranch.add(formula);
+        if (formulaKeys.contains(key)) {
+            closed = true;
+            return;
+        }
+        Node negatedRoot = NodeFactory.find(NEGATION, root, null);
+        if (negatedRoot != null && negatedFormulaKeys.contains(key(negatedRoot, state))) {
+            closed = true;
+        } else if (root.getValue() instanceof Negation && negatedFormulaKeys.contains(key(root.getLeft(), state))) {
+            closed = true;
+        }
     }
 
     /**
      * A method that indicates whether a formula is already on the branch.
-     * @param formulaList The list of formulas on the current branch.
      * @param formula The formula that is checked on whether it is already on the branch.
      * @return A boolean variable indicating whether the formula is already on the branch.
      */
-    public boolean containsFormula(ArrayList<TableauFormula> formulaList, TableauFormula formula){
-        for (TableauFormula tableauFormula : formulaList) if (tableauFormula.isEqual(formula)) return true;
-        return false;
+    public boolean containsFormula(TableauFormula formula){
+        return formulaKeys.contains(key(formula.getFormulaTree().getRoot(), formula.getState()));
+    }
+
+    /**
+     * Computes the index key of a formula in a state out of the id of its canonical formula tree.
+     * @param root The canonical root of the formula tree.
+     * @param state The state of the formula.
+     * @return The key of the formula in that state.
+     */
+    private static long key(Node root, int state) {
+        return ((long) root.getId() << 32) | (state & 0xffffffffL);
+    }
+
+    /**
+     * A method that adds a branch that got forked off this branch to the tableau. It has to be called once the rule
+     * that forked the branch added all its formulas, since in parallel mode the branch may immediately get solved by
+     * another thread.
+     * @param forkedBranch The branch that got forked off this branch.
+     */
+    public void addForkedBranch(Branch forkedBranch) {
+        if (task != null) {
+            task.fork(forkedBranch);
+        } else {
+            tableau.addBranch(forkedBranch);
+        }
     }
 
     /**
@@ -110,66 +238,43 @@ public class Branch {
      * @param formula The formula that should be added to the branch.
      */
     public void addFormula(TableauFormula formula) {
-        leftOverFormulas.add(formula);
+        leftOverFormulas = leftOverFormulas.add(formula);
     }
 
     /**
      * A method that implements the solving of a branch. Whilst there are still formulas on the branch that should be
-     * solved it always applies the rule of the main connective to the formula with the highest complexity (on the
-     * branch). If the branch is not solved within 10 seconds it times out.
-     * @return A boolean variable indicating whether the branch closed or not. A timed out branch is treated as not
-     * being closed.
+     * solved it always applies the rule of the main connective to the formula with the highest priority (on the
+     * branch). Every rule application and the number of states on the branch are checked against the budget of the
+     * tableau, the branch stops once the budget is exhausted. In parallel mode the branch also stops once another
+     * branch of the tableau was found open. The status of the branch is only set if it was solved completely.
+     * @return A boolean variable indicating whether the branch closed or not. A branch that exhausted the budget or
+     * got stopped is treated as not being closed.
      */
     public boolean solveBranch(){
-        long startTime = System.currentTimeMillis();
-        while (!leftOverFormulas.isEmpty() && (System.currentTimeMillis()-startTime)<STOPTIME){
-            currentFormula = leftOverFormulas.poll();
-            assert currentFormula != null;
+        SolverBudget budget = tableau.getBudget();
+        while (!leftOverFormulas.isEmpty()){
+            if (tableau.isOpenBranchFound() || !budget.step()) return false;
+            currentFormula = leftOverFormulas.peek();
+            leftOverFormulas = leftOverFormulas.removeFirst();
             Node root = currentFormula.getFormulaTree().getRoot();
             if (!root.isLeaf()) {
                 ((Connective) root.getValue()).applyRule(tableau, this, currentFormula); //currentFormula.getFormulaTree());
             } else {
-                formulasOnBranch.add(currentFormula);
+                addFormulaOnBranch(currentFormula);
             }
-            if (isCLosed()) return true;
-            if ((System.currentTimeMillis()-startTime)>=STOPTIME) break;
+            if (closed) break;
             checkRelationsPerAgent();
-            if ((System.currentTimeMillis()-startTime)>=STOPTIME) break;
-            ArrayList<InfTableauFormula> copyInfFormulas = new ArrayList<>(infFormulas);
-            copyInfFormulas.forEach(infFormula -> infFormula.applyNewRelations(((Belief)
-                    infFormula.getFormulaTree().getRoot().getValue()).getAgent().getRelations(), this));
-        }
-        if (isCLosed()) {
-            return true;
-        } else if (System.currentTimeMillis()-startTime >= STOPTIME) {
-            return false;
+            if (!budget.checkWorlds(relations.getNrWorlds())) return false;
+            relations.processNewRelations(this::applyNewRelation);
         }
-        return !leftOverFormulas.isEmpty();
+        branchStatus = closed ? 2 : 1;
+        return closed;
     }
 
     /**
      * A method that checks the relations for each agent that occurs on the branch once a new relation gets added.
      */
     private void checkRelationsPerAgent() {
-        agents.forEach(agent -> agent.checkRelations(worlds, this));
-    }
-
-    /**
-     * A method that indicates whether a branch is closed. It loops through the formulas and the negated
-     * formulas on the branch to check whether two are equal.
-     * @return A boolean variable indicating whether the branch is closed.
-     */
-    private boolean isCLosed() {
-        ArrayList<TableauFormula> copyNegatedFormulas = new ArrayList<>(negatedFormulasOnBranch);
-        for (TableauFormula formula : copyNegatedFormulas) {
-            for (TableauFormula formula2 : formulasOnBranch) {
-                if (formula.isEqual(formula2)) return true;
-            }
-            for (TableauFormula formula2 : copyNegatedFormulas) {
-                TableauFormula negatedFormula = new TableauFormula(new Formula (new Negation(), formula2), formula2.getState());
-                if (formula.isEqual(negatedFormula)) return true;
-            }
-        }
-        return false;
+        agents.forEach(relations::checkRelations);
     }
 }
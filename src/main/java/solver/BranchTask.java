@@ -0,0 +1,60 @@
+package solver;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A task that solves a single branch of a tableau in parallel mode. Branches that get forked off while the branch is
+ * solved become tasks of their own that can be solved by other threads. The task results in true if its branch and all
+ * branches forked off it closed.
+ */
+class BranchTask extends RecursiveTask<Boolean> {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final Branch branch;
+    private final ArrayList<BranchTask> forkedTasks = new ArrayList<>();
+
+    /**
+     * Constructor of the task solving a branch.
+     * @param branch The branch that gets solved by the task.
+     */
+    BranchTask(Branch branch) {
+        this.branch = branch;
+    }
+
+    /**
+     * A method that starts a new task for a branch that got forked off the branch of this task.
+     * @param forkedBranch The forked branch.
+     */
+    void fork(Branch forkedBranch) {
+        BranchTask task = new BranchTask(forkedBranch);
+        task.fork();
+        forkedTasks.add(task);
+    }
+
+    /**
+     * Solves the branch and waits for the forked branches. As soon as any branch of the tableau is open (or exhausted
+     * the budget), the tableau is marked as such and all other tasks stop without finishing their branches.
+     * @return A boolean variable indicating whether the branch and all forked branches closed.
+     */
+    @Override
+    protected Boolean compute() {
+        Tableau tableau = branch.getTableau();
+        if (tableau.isOpenBranchFound()) return false;
+        branch.task = this;
+        boolean closed = branch.solveBranch();
+        branch.task = null;
+        if (!closed) {
+            if (branch.getBranchStatus() == 1) tableau.setOpenBranchComplete(true);
+            tableau.setOpenBranchFound(true);
+        }
+        if (tableau.isOpenBranchFound()) return false;
+        for (BranchTask task : forkedTasks) {
+            if (!task.join()) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,17 @@
+package solver;
+
+import generator.connectives.RuleClass;
+import generator.formula.TableauFormula;
+
+/**
+ * A strategy that expands all formulas that do not fork the branch first, in no particular order, and the formulas
+ * that fork the branch last. Of those, the shortest formulas get expanded first, since they tend to fork the branches
+ * less often later on.
+ */
+public class FewestBranchesPriority implements PriorityStrategy {
+
+    @Override
+    public int getPriority(TableauFormula formula) {
+        return formula.getRuleClass() == RuleClass.BETA ? 1 + formula.getLength() : 0;
+    }
+}
@@ -0,0 +1,22 @@
+package solver;
+
+import generator.formula.TableauFormula;
+
+/**
+ * A strategy that expands all propositional formulas of a state first, including those that fork the branch, and the
+ * modal formulas last, so new states are only introduced once the current states are fully expanded.
+ */
+public class ModalLastPriority implements PriorityStrategy {
+
+    @Override
+    public int getPriority(TableauFormula formula) {
+        return switch (formula.getRuleClass()) {
+            case LITERAL -> 0;
+            case DOUBLE_NEGATION -> 1;
+            case ALPHA -> 2;
+            case BETA -> 3;
+            case UNIVERSAL -> 4;
+            case EXISTENTIAL -> 5;
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package solver;
+
+import generator.formula.TableauFormula;
+
+/**
+ * A strategy that expands the formulas of the newest state first, and the formulas of a state in the order of the kind
+ * of their rule (see {@link RuleClassPriority}). The newest state is the one that the belief formulas were propagated
+ * to last, so a contradiction is most likely to be found there.
+ */
+public class NewestWorldPriority implements PriorityStrategy {
+
+    private final RuleClassPriority ruleClassPriority = new RuleClassPriority();
+
+    @Override
+    public int getPriority(TableauFormula formula) {
+        return -formula.getState() * 8 + ruleClassPriority.getPriority(formula);
+    }
+}
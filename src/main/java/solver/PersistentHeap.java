@@ -0,0 +1,133 @@
+package solver;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * A class that implements an immutable priority queue as a leftist heap. Adding or removing an element creates a new
+ * heap that shares all unchanged nodes with the old one, so a heap can be handed to a forked branch without copying it.
+ * Both operations take logarithmic time, the smallest element according to the comparator comes first.
+ * @param <E> The type of the elements of the heap.
+ */
+public final class PersistentHeap<E> {
+
+    /**
+     * A node of the heap. The rank of a node is the length of its rightmost path, which is never longer than the
+     * rightmost path of its left child.
+     * @param <E> The type of the elements of the heap.
+     */
+    private static final class Node<E> {
+
+        private final E element;
+        private final Node<E> left;
+        private final Node<E> right;
+        private final int rank;
+
+        /**
+         * Constructor of a node of the heap.
+         * @param element The element of the node, which is not larger than the elements of its children.
+         * @param left The left child.
+         * @param right The right child, whose rank is not larger than the rank of the left child.
+         */
+        Node(E element, Node<E> left, Node<E> right) {
+            this.element = element;
+            this.left = left;
+            this.right = right;
+            this.rank = rank(right) + 1;
+        }
+    }
+
+    private final Comparator<? super E> comparator;
+    private final Node<E> root;
+    private final int size;
+
+    /**
+     * Constructor of an empty heap.
+     * @param comparator The comparator that orders the elements of the heap.
+     */
+    public PersistentHeap(Comparator<? super E> comparator) {
+        this(comparator, null, 0);
+    }
+
+    /**
+     * Constructor of a heap out of its root.
+     * @param comparator The comparator that orders the elements of the heap.
+     * @param root The root of the heap.
+     * @param size The number of elements of the heap.
+     */
+    private PersistentHeap(Comparator<? super E> comparator, Node<E> root, int size) {
+        this.comparator = comparator;
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * A method that indicates whether the heap is empty.
+     * @return A boolean variable indicating whether the heap is empty.
+     */
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Getter for the number of elements of the heap.
+     * @return The number of elements.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Getter for the smallest element of the heap.
+     * @return The smallest element or null if the heap is empty.
+     */
+    public E peek() {
+        return root == null ? null : root.element;
+    }
+
+    /**
+     * A method that adds an element to the heap.
+     * @param element The element that gets added.
+     * @return The heap that also contains the element, this heap stays unchanged.
+     */
+    public PersistentHeap<E> add(E element) {
+        return new PersistentHeap<>(comparator, merge(root, new Node<>(element, null, null)), size + 1);
+    }
+
+    /**
+     * A method that removes the smallest element from the heap.
+     * @return The heap without its smallest element, this heap stays unchanged.
+     */
+    public PersistentHeap<E> removeFirst() {
+        if (root == null) throw new NoSuchElementException();
+        return new PersistentHeap<>(comparator, merge(root.left, root.right), size - 1);
+    }
+
+    /**
+     * A method that merges two heaps along their rightmost paths. Only the nodes on these paths get copied.
+     * @param node1 The root of the first heap.
+     * @param node2 The root of the second heap.
+     * @return The root of the merged heap.
+     */
+    private Node<E> merge(Node<E> node1, Node<E> node2) {
+        if (node1 == null) return node2;
+        if (node2 == null) return node1;
+        if (comparator.compare(node2.element, node1.element) < 0) {
+            Node<E> node = node1;
+            node1 = node2;
+            node2 = node;
+        }
+        Node<E> merged = merge(node1.right, node2);
+        if (rank(node1.left) < rank(merged)) return new Node<>(node1.element, merged, node1.left);
+        return new Node<>(node1.element, node1.left, merged);
+    }
+
+    /**
+     * Getter for the rank of a node.
+     * @param node The node, which may be null.
+     * @return The rank of the node, 0 for no node.
+     */
+    private static int rank(Node<?> node) {
+        return node == null ? 0 : node.rank;
+    }
+}
@@ -0,0 +1,87 @@
+package solver;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A class that implements an immutable singly linked list. Adding an element creates a new list whose tail is the old
+ * list, so a list can be handed to a forked branch without copying it and both branches share their common history.
+ * The list iterates from the element that was added last to the element that was added first.
+ * @param <E> The type of the elements of the list.
+ */
+public final class PersistentList<E> implements Iterable<E> {
+
+    private static final PersistentList<?> EMPTY = new PersistentList<>(null, null, 0);
+
+    private final E head;
+    private final PersistentList<E> tail;
+    private final int size;
+
+    /**
+     * Constructor of a list out of its first element and the rest of the list.
+     * @param head The first element.
+     * @param tail The rest of the list.
+     * @param size The number of elements of the list.
+     */
+    private PersistentList(E head, PersistentList<E> tail, int size) {
+        this.head = head;
+        this.tail = tail;
+        this.size = size;
+    }
+
+    /**
+     * Getter for the empty list.
+     * @param <E> The type of the elements of the list.
+     * @return The empty list.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentList<E> empty() {
+        return (PersistentList<E>) EMPTY;
+    }
+
+    /**
+     * A method that adds an element to the list.
+     * @param element The element that gets added.
+     * @return The list that starts with the element and continues with this list, this list stays unchanged.
+     */
+    public PersistentList<E> add(E element) {
+        return new PersistentList<>(element, this, size + 1);
+    }
+
+    /**
+     * A method that indicates whether the list is empty.
+     * @return A boolean variable indicating whether the list is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Getter for the number of elements of the list.
+     * @return The number of elements.
+     */
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+
+            private PersistentList<E> list = PersistentList.this;
+
+            @Override
+            public boolean hasNext() {
+                return list.size > 0;
+            }
+
+            @Override
+            public E next() {
+                if (list.size == 0) throw new NoSuchElementException();
+                E element = list.head;
+                list = list.tail;
+                return element;
+            }
+        };
+    }
+}
@@ -0,0 +1,188 @@
+package solver;
+
+/**
+ * A class that implements an immutable set of longs as a hash array mapped trie. Every node of the trie distributes
+ * the keys by 5 bits of their hash over at most 32 slots; a slot holds either a single key or a child node. Adding a key
+ * creates a new set that only copies the nodes on the path to the key and shares all other nodes with the old set, so
+ * a set can be handed to a forked branch without copying it.
+ */
+public final class PersistentLongSet {
+
+    /**
+     * The empty set.
+     */
+    public static final PersistentLongSet EMPTY = new PersistentLongSet(new Node(0, 0, new long[0], new Node[0]), 0);
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    /**
+     * A node of the trie. The bitmaps tell which slots hold a key and which hold a child node, the keys and the
+     * children are stored in the order of their slots.
+     */
+    private static final class Node {
+
+        private final int keyMap;
+        private final int nodeMap;
+        private final long[] keys;
+        private final Node[] nodes;
+
+        /**
+         * Constructor of a node of the trie.
+         * @param keyMap The bitmap of the slots that hold a key.
+         * @param nodeMap The bitmap of the slots that hold a child node.
+         * @param keys The keys in the order of their slots.
+         * @param nodes The child nodes in the order of their slots.
+         */
+        Node(int keyMap, int nodeMap, long[] keys, Node[] nodes) {
+            this.keyMap = keyMap;
+            this.nodeMap = nodeMap;
+            this.keys = keys;
+            this.nodes = nodes;
+        }
+    }
+
+    private final Node root;
+    private final int size;
+
+    /**
+     * Constructor of a set out of its root.
+     * @param root The root of the trie.
+     * @param size The number of keys of the set.
+     */
+    private PersistentLongSet(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Getter for the number of keys of the set.
+     * @return The number of keys.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * A method that indicates whether the set contains a key.
+     * @param key The key.
+     * @return A boolean variable indicating whether the set contains the key.
+     */
+    public boolean contains(long key) {
+        long hash = hash(key);
+        Node node = root;
+        for (int shift = 0; ; shift += BITS) {
+            int bit = bit(hash, shift);
+            if ((node.keyMap & bit) != 0) return node.keys[index(node.keyMap, bit)] == key;
+            if ((node.nodeMap & bit) == 0) return false;
+            node = node.nodes[index(node.nodeMap, bit)];
+        }
+    }
+
+    /**
+     * A method that adds a key to the set.
+     * @param key The key that gets added.
+     * @return The set that also contains the key, or this set if it contains the key already. This set stays
+     * unchanged.
+     */
+    public PersistentLongSet add(long key) {
+        Node newRoot = add(root, key, hash(key), 0);
+        return newRoot == root ? this : new PersistentLongSet(newRoot, size + 1);
+    }
+
+    /**
+     * A method that adds a key to a node of the trie.
+     * @param node The node.
+     * @param key The key that gets added.
+     * @param hash The hash of the key.
+     * @param shift The position of the bits of the hash that select the slot in the node.
+     * @return The node that also contains the key, or the node itself if it contains the key already.
+     */
+    private static Node add(Node node, long key, long hash, int shift) {
+        int bit = bit(hash, shift);
+        if ((node.keyMap & bit) != 0) {
+            int keyIndex = index(node.keyMap, bit);
+            long otherKey = node.keys[keyIndex];
+            if (otherKey == key) return node;
+            // the slot gets a child node containing both keys
+            Node child = pair(otherKey, hash(otherKey), key, hash, shift + BITS);
+            long[] keys = new long[node.keys.length - 1];
+            System.arraycopy(node.keys, 0, keys, 0, keyIndex);
+            System.arraycopy(node.keys, keyIndex + 1, keys, keyIndex, keys.length - keyIndex);
+            int nodeIndex = index(node.nodeMap, bit);
+            Node[] nodes = new Node[node.nodes.length + 1];
+            System.arraycopy(node.nodes, 0, nodes, 0, nodeIndex);
+            nodes[nodeIndex] = child;
+            System.arraycopy(node.nodes, nodeIndex, nodes, nodeIndex + 1, node.nodes.length - nodeIndex);
+            return new Node(node.keyMap ^ bit, node.nodeMap | bit, keys, nodes);
+        }
+        if ((node.nodeMap & bit) != 0) {
+            int nodeIndex = index(node.nodeMap, bit);
+            Node child = add(node.nodes[nodeIndex], key, hash, shift + BITS);
+            if (child == node.nodes[nodeIndex]) return node;
+            Node[] nodes = node.nodes.clone();
+            nodes[nodeIndex] = child;
+            return new Node(node.keyMap, node.nodeMap, node.keys, nodes);
+        }
+        int keyIndex = index(node.keyMap, bit);
+        long[] keys = new long[node.keys.length + 1];
+        System.arraycopy(node.keys, 0, keys, 0, keyIndex);
+        keys[keyIndex] = key;
+        System.arraycopy(node.keys, keyIndex, keys, keyIndex + 1, node.keys.length - keyIndex);
+        return new Node(node.keyMap | bit, node.nodeMap, keys, node.nodes);
+    }
+
+    /**
+     * A method that creates a node containing two different keys. Since the hash is a bijection, the hashes of the
+     * keys differ in some slot before all 64 bits are used.
+     * @param key1 The first key.
+     * @param hash1 The hash of the first key.
+     * @param key2 The second key.
+     * @param hash2 The hash of the second key.
+     * @param shift The position of the bits of the hashes that select the slot in the node.
+     * @return The node containing the two keys.
+     */
+    private static Node pair(long key1, long hash1, long key2, long hash2, int shift) {
+        int bit1 = bit(hash1, shift);
+        int bit2 = bit(hash2, shift);
+        if (bit1 == bit2) {
+            return new Node(0, bit1, new long[0], new Node[]{pair(key1, hash1, key2, hash2, shift + BITS)});
+        }
+        long[] keys = Integer.compareUnsigned(bit1, bit2) < 0 ? new long[]{key1, key2} : new long[]{key2, key1};
+        return new Node(bit1 | bit2, 0, keys, new Node[0]);
+    }
+
+    /**
+     * Getter for the slot bit of a hash in a node.
+     * @param hash The hash.
+     * @param shift The position of the bits of the hash that select the slot.
+     * @return The bitmap with only the bit of the slot set.
+     */
+    private static int bit(long hash, int shift) {
+        return 1 << ((int) (hash >>> shift) & MASK);
+    }
+
+    /**
+     * Getter for the position of a slot in the keys or child nodes of a node.
+     * @param map The bitmap of the slots that hold a key or the bitmap of the slots that hold a child node.
+     * @param bit The bit of the slot.
+     * @return The number of occupied slots before the slot.
+     */
+    private static int index(int map, int bit) {
+        return Integer.bitCount(map & (bit - 1));
+    }
+
+    /**
+     * A method that spreads the bits of a key over its hash (the finalizer of MurmurHash3), which is a bijection.
+     * @param key The key.
+     * @return The hash of the key.
+     */
+    private static long hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
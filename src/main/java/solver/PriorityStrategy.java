@@ -0,0 +1,46 @@
+package solver;
+
+import generator.formula.TableauFormula;
+import io.Settings;
+
+import java.util.List;
+
+/**
+ * A strategy that decides in which order the formulas on a branch get expanded. The formula with the lowest priority
+ * gets expanded first. The priority has to be cheap to compute, since it is requested on every comparison in the queue
+ * of formulas of a branch, and it must not change while the formula is in the queue.
+ */
+public interface PriorityStrategy {
+
+    /**
+     * The names of the available strategies, the first one is used if no strategy is selected.
+     */
+    List<String> NAMES = List.of("ruleClass", "fewestBranches", "smallestFormula", "modalLast", "newestWorld");
+
+    /**
+     * The strategy that is used by the solver, selected by the setting {@code solver.strategy}.
+     */
+    PriorityStrategy DEFAULT = forName(Settings.getString("solver.strategy", NAMES.get(0)));
+
+    /**
+     * Getter for the priority of a formula.
+     * @param formula The tableau formula whose priority is requested.
+     * @return The priority of the formula, formulas with lower priorities get expanded first.
+     */
+    int getPriority(TableauFormula formula);
+
+    /**
+     * Getter for a strategy by its name (see {@link #NAMES}).
+     * @param name The name of the strategy.
+     * @return The strategy, the strategy that expands the formulas by the kind of their rule if the name is unknown.
+     */
+    static PriorityStrategy forName(String name) {
+        return switch (name) {
+            case "fewestBranches" -> new FewestBranchesPriority();
+            case "smallestFormula" -> new SmallestFormulaPriority();
+            case "modalLast" -> new ModalLastPriority();
+            case "newestWorld" -> new NewestWorldPriority();
+            default -> new RuleClassPriority();
+        };
+    }
+}
@@ -0,0 +1,314 @@
+package solver;
+
+import generator.formula.Agent;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * A class that stores the states and the accessibility relations of the agents on a single branch. States are numbered
+ * from 0 in the order in which they are created, state 0 is the state in which the tableau starts. Forking a branch
+ * shares the relations of all agents with the new branch; the relations of an agent only get copied once one of the
+ * branches adds a relation for that agent (copy-on-write).
+ * <p>
+ * The relations of every agent are kept transitive and euclidean at all times: when a relation gets added, only the
+ * consequences of that relation are added, using the successors and predecessors of the states involved.
+ */
+public class RelationStore {
+
+    private static final BitSet NO_SUCCESSORS = new BitSet();
+
+    private HashMap<Agent, AgentRelations> relations;
+    private int nrWorlds = 1;
+
+    /**
+     * The relations that were added since the new relations were processed last, as agents and pairs of states.
+     */
+    private Agent[] newRelationAgents = new Agent[16];
+    private int[] newRelationWorlds = new int[32];
+    private int nrNewRelations;
+
+    /**
+     * A consumer of the new relations of a store.
+     */
+    @FunctionalInterface
+    public interface RelationConsumer {
+
+        /**
+         * A method that processes a new relation.
+         * @param agent The agent of the relation.
+         * @param world1 The first state of the relation.
+         * @param world2 The state that the first state relates to.
+         */
+        void accept(Agent agent, int world1, int world2);
+    }
+
+    /**
+     * The agents whose relations are owned by this store and can therefore be changed in place.
+     */
+    private HashSet<Agent> ownedAgents = new HashSet<>();
+
+    /**
+     * The relations of a single agent: the successors and predecessors of every state as bit sets indexed by state.
+     */
+    private static final class AgentRelations {
+
+        private BitSet[] successors;
+        private BitSet[] predecessors;
+
+        /**
+         * The relations that were added but whose consequences were not added yet, as pairs of states.
+         */
+        private int[] pending = new int[16];
+        private int nrPending;
+
+        /**
+         * Constructor of the empty relations of an agent.
+         */
+        AgentRelations() {
+            successors = new BitSet[0];
+            predecessors = new BitSet[0];
+        }
+
+        /**
+         * Constructor that copies the relations of an agent.
+         * @param other The relations that get copied.
+         */
+        AgentRelations(AgentRelations other) {
+            successors = copy(other.successors);
+            predecessors = copy(other.predecessors);
+        }
+
+        /**
+         * A method that indicates whether a state relates to another state.
+         * @param world1 The first state of the relation.
+         * @param world2 The state that the first state relates to.
+         * @return A boolean variable indicating whether the relation exists.
+         */
+        boolean contains(int world1, int world2) {
+            return world1 < successors.length && successors[world1] != null && successors[world1].get(world2);
+        }
+
+        /**
+         * Getter for the successors of a state.
+         * @param world The state.
+         * @return The successors of the state, the bit set must not be changed.
+         */
+        BitSet getSuccessors(int world) {
+            return world < successors.length && successors[world] != null ? successors[world] : NO_SUCCESSORS;
+        }
+
+        /**
+         * A method that adds a relation if it does not exist yet and remembers it as pending.
+         * @param world1 The first state of the relation.
+         * @param world2 The state that the first state relates to.
+         */
+        void add(int world1, int world2) {
+            if (contains(world1, world2)) return;
+            successors = ensure(successors, world1);
+            predecessors = ensure(predecessors, world2);
+            successors[world1].set(world2);
+            predecessors[world2].set(world1);
+            if (nrPending + 2 > pending.length) pending = Arrays.copyOf(pending, 2 * pending.length);
+            pending[nrPending++] = world1;
+            pending[nrPending++] = world2;
+        }
+
+        /**
+         * A method that adds a relation and all relations that follow from it by transitivity and euclideanicity. Every
+         * relation that gets added is pending until its own consequences were added, and is recorded as a new relation
+         * of the store.
+         * @param world1 The first state of the relation.
+         * @param world2 The state that the first state relates to.
+         * @param store The store that owns the relations.
+         * @param agent The agent of the relations.
+         */
+        void close(int world1, int world2, RelationStore store, Agent agent) {
+            add(world1, world2);
+            while (nrPending > 0) {
+                int to = pending[--nrPending];
+                int from = pending[--nrPending];
+                store.recordNewRelation(agent, from, to);
+                // transitivity, with the relation as the second and as the first relation
+                BitSet fromPredecessors = from < predecessors.length ? predecessors[from] : null;
+                if (fromPredecessors != null) {
+                    for (int world = fromPredecessors.nextSetBit(0); world >= 0;
+                         world = fromPredecessors.nextSetBit(world + 1)) add(world, to);
+                }
+                BitSet toSuccessors = to < successors.length ? successors[to] : null;
+                if (toSuccessors != null) {
+                    for (int world = toSuccessors.nextSetBit(0); world >= 0; world = toSuccessors.nextSetBit(world + 1))
+                        add(from, world);
+                }
+                // euclideanicity, with the relation as the first and as the second relation
+                BitSet fromSuccessors = successors[from];
+                for (int world = fromSuccessors.nextSetBit(0); world >= 0;
+                     world = fromSuccessors.nextSetBit(world + 1)) {
+                    add(to, world);
+                    add(world, to);
+                }
+            }
+        }
+
+        /**
+         * A method that makes sure that an array of bit sets has a bit set for a state.
+         * @param sets The array of bit sets.
+         * @param world The state.
+         * @return The array of bit sets, enlarged if necessary.
+         */
+        private static BitSet[] ensure(BitSet[] sets, int world) {
+            if (world >= sets.length) sets = Arrays.copyOf(sets, Math.max(world + 1, 2 * sets.length));
+            if (sets[world] == null) sets[world] = new BitSet();
+            return sets;
+        }
+
+        /**
+         * A method that copies an array of bit sets.
+         * @param sets The array of bit sets.
+         * @return A copy of the array and of every bit set in it.
+         */
+        private static BitSet[] copy(BitSet[] sets) {
+            BitSet[] copy = new BitSet[sets.length];
+            for (int i = 0; i < sets.length; i++) if (sets[i] != null) copy[i] = (BitSet) sets[i].clone();
+            return copy;
+        }
+    }
+
+    /**
+     * Constructor of an empty relation store.
+     */
+    public RelationStore() {
+        this.relations = new HashMap<>();
+    }
+
+    /**
+     * Constructor of a relation store that shares the relations of another store.
+     * @param relations The relations of the other store.
+     * @param nrWorlds The number of states of the other store.
+     */
+    private RelationStore(HashMap<Agent, AgentRelations> relations, int nrWorlds) {
+        this.relations = new HashMap<>(relations);
+        this.nrWorlds = nrWorlds;
+    }
+
+    /**
+     * Constructor of a relation store that shares the relations of another store and also gets its new relations that
+     * were not processed yet.
+     * @param store The other store.
+     */
+    private RelationStore(RelationStore store) {
+        this(store.relations, store.nrWorlds);
+        newRelationAgents = store.newRelationAgents.clone();
+        newRelationWorlds = store.newRelationWorlds.clone();
+        nrNewRelations = store.nrNewRelations;
+    }
+
+    /**
+     * Creates a copy of the relation store for a forked branch. Both stores share the relations until one of them
+     * changes the relations of an agent. The new relations that were not processed yet are processed by both.
+     * @return The relation store for the forked branch.
+     */
+    public RelationStore fork() {
+        ownedAgents = new HashSet<>();
+        return new RelationStore(this);
+    }
+
+    /**
+     * Getter for the number of states on the branch.
+     * @return The number of states, the states are numbered from 0.
+     */
+    public int getNrWorlds() {
+        return nrWorlds;
+    }
+
+    /**
+     * A method that creates a new state on the branch.
+     * @return The number of the new state.
+     */
+    public int addWorld() {
+        return nrWorlds++;
+    }
+
+    /**
+     * Getter for the states that a state relates to for an agent.
+     * @param agent The agent of the relations.
+     * @param world The state whose successors are requested.
+     * @return The successors of the state, the bit set must not be changed.
+     */
+    public BitSet getSuccessors(Agent agent, int world) {
+        AgentRelations agentRelations = relations.get(agent);
+        return agentRelations == null ? NO_SUCCESSORS : agentRelations.getSuccessors(world);
+    }
+
+    /**
+     * Checks if a relation between two states exist for an agent and adds the relation if it does not, together with
+     * all relations that follow from it by transitivity and euclideanicity.
+     * @param agent The agent of the relation.
+     * @param world1 The first state of the relation.
+     * @param world2 The state that the first state relates to.
+     * @return Boolean variable indicating whether the relation was added.
+     */
+    public boolean addRelation(Agent agent, int world1, int world2) {
+        AgentRelations agentRelations = relations.get(agent);
+        if (agentRelations != null && agentRelations.contains(world1, world2)) return false;
+        ownedRelations(agent).close(world1, world2, this, agent);
+        return true;
+    }
+
+    /**
+     * Applying the relational constraints (transitivity, euclideanicity, seriality) to the relations of an agent. Since
+     * the relations are transitive and euclidean already, only seriality has to be checked: every state without a
+     * successor gets related to a new state.
+     * @param agent The agent whose relations get checked.
+     */
+    public void checkRelations(Agent agent) {
+        for (int world = 0; world < nrWorlds; world++) {
+            if (getSuccessors(agent, world).isEmpty()) addRelation(agent, world, addWorld());
+        }
+    }
+
+    /**
+     * A method that hands every relation that was added since the last call, including the relations that followed
+     * from the added ones, to a consumer once, in the order in which they were added.
+     * @param consumer The consumer of the new relations, which must not add relations itself.
+     */
+    public void processNewRelations(RelationConsumer consumer) {
+        for (int i = 0; i < nrNewRelations; i++) {
+            consumer.accept(newRelationAgents[i], newRelationWorlds[2 * i], newRelationWorlds[2 * i + 1]);
+            newRelationAgents[i] = null;
+        }
+        nrNewRelations = 0;
+    }
+
+    /**
+     * A method that records a relation that was added.
+     * @param agent The agent of the relation.
+     * @param world1 The first state of the relation.
+     * @param world2 The state that the first state relates to.
+     */
+    private void recordNewRelation(Agent agent, int world1, int world2) {
+        if (nrNewRelations == newRelationAgents.length) {
+            newRelationAgents = Arrays.copyOf(newRelationAgents, 2 * nrNewRelations);
+            newRelationWorlds = Arrays.copyOf(newRelationWorlds, 4 * nrNewRelations);
+        }
+        newRelationAgents[nrNewRelations] = agent;
+        newRelationWorlds[2 * nrNewRelations] = world1;
+        newRelationWorlds[2 * nrNewRelations + 1] = world2;
+        nrNewRelations++;
+    }
+
+    /**
+     * Returns the relations of an agent that may be changed by this store, copying shared relations first.
+     * @param agent The agent whose relations get changed.
+     * @return The relations owned by this store.
+     */
+    private AgentRelations ownedRelations(Agent agent) {
+        if (ownedAgents.add(agent)) {
+            AgentRelations agentRelations = relations.get(agent);
+            relations.put(agent, agentRelations == null ? new AgentRelations() : new AgentRelations(agentRelations));
+        }
+        return relations.get(agent);
+    }
+}
@@ -0,0 +1,23 @@
+package solver;
+
+import generator.formula.TableauFormula;
+
+/**
+ * A strategy that expands the formulas by the kind of their rule: literals first, then double negations, rules that
+ * do not fork the branch, rules for all reachable states and rules that introduce new states, and rules that fork the
+ * branch last.
+ */
+public class RuleClassPriority implements PriorityStrategy {
+
+    @Override
+    public int getPriority(TableauFormula formula) {
+        return switch (formula.getRuleClass()) {
+            case LITERAL -> 0;
+            case DOUBLE_NEGATION -> 1;
+            case ALPHA -> 2;
+            case UNIVERSAL -> 3;
+            case EXISTENTIAL -> 4;
+            case BETA -> 5;
+        };
+    }
+}
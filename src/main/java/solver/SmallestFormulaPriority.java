@@ -0,0 +1,14 @@
+package solver;
+
+import generator.formula.TableauFormula;
+
+/**
+ * A strategy that expands the shortest formulas first, regardless of the kind of their rule.
+ */
+public class SmallestFormulaPriority implements PriorityStrategy {
+
+    @Override
+    public int getPriority(TableauFormula formula) {
+        return formula.getLength();
+    }
+}
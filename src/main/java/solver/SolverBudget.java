@@ -0,0 +1,120 @@
+package solver;
+
+import io.Settings;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A class that implements the budget of a single tableau: a deadline and a maximum number of rule applications, states
+ * per branch and branches. The limits are read from the settings {@code solver.maxTime} (in milliseconds),
+ * {@code solver.maxSteps}, {@code solver.maxWorlds} and {@code solver.maxBranches}, a limit of 0 means no limit. The
+ * branches check the budget cooperatively: every rule application counts a step, and the clock is only read every
+ * {@value #CLOCK_INTERVAL} steps. Once any limit is exceeded the budget is exhausted and the tableau is unknown.
+ */
+public class SolverBudget {
+
+    public static final int MAX_TIME = Settings.getInt("solver.maxTime", 10000);
+    public static final int MAX_STEPS = Settings.getInt("solver.maxSteps", 1000000);
+    public static final int MAX_WORLDS = Settings.getInt("solver.maxWorlds", 10000);
+    public static final int MAX_BRANCHES = Settings.getInt("solver.maxBranches", 100000);
+
+    private static final int CLOCK_INTERVAL = 32;
+
+    private final boolean timed;
+    private final long deadline;
+    private final long maxSteps;
+    private final int maxWorlds;
+    private final int maxBranches;
+
+    private final AtomicLong steps = new AtomicLong();
+    private volatile boolean exhausted = false;
+
+    /**
+     * Constructor of a budget with the limits of the settings, the time starts running right away.
+     */
+    public SolverBudget() {
+        this(MAX_TIME, MAX_STEPS, MAX_WORLDS, MAX_BRANCHES);
+    }
+
+    /**
+     * Constructor of a budget with the limits of the settings multiplied by a factor, e.g. for a formula that is
+     * retried after it exhausted a smaller budget. The time starts running right away.
+     * @param factor The factor by which the limits get multiplied.
+     */
+    public SolverBudget(int factor) {
+        this((long) MAX_TIME * factor, (long) MAX_STEPS * factor, scale(MAX_WORLDS, factor),
+                scale(MAX_BRANCHES, factor));
+    }
+
+    /**
+     * Constructor of a budget with given limits, the time starts running right away.
+     * @param maxTime The maximum time in milliseconds.
+     * @param maxSteps The maximum number of rule applications on all branches together.
+     * @param maxWorlds The maximum number of states on a branch.
+     * @param maxBranches The maximum number of branches.
+     */
+    public SolverBudget(long maxTime, long maxSteps, int maxWorlds, int maxBranches) {
+        this.timed = maxTime > 0;
+        this.deadline = System.nanoTime() + maxTime * 1_000_000;
+        this.maxSteps = maxSteps > 0 ? maxSteps : Long.MAX_VALUE;
+        this.maxWorlds = maxWorlds > 0 ? maxWorlds : Integer.MAX_VALUE;
+        this.maxBranches = maxBranches > 0 ? maxBranches : Integer.MAX_VALUE;
+    }
+
+    /**
+     * A method that counts a rule application and checks the number of steps and, every few steps, the deadline.
+     * @return A boolean variable indicating whether the budget is not exhausted.
+     */
+    public boolean step() {
+        if (exhausted) return false;
+        long step = steps.incrementAndGet();
+        if (step > maxSteps || (timed && step % CLOCK_INTERVAL == 0 && System.nanoTime() - deadline > 0)) exhausted = true;
+        return !exhausted;
+    }
+
+    /**
+     * A method that checks the number of states on a branch.
+     * @param nrWorlds The number of states on the branch.
+     * @return A boolean variable indicating whether the budget is not exhausted.
+     */
+    public boolean checkWorlds(int nrWorlds) {
+        if (nrWorlds > maxWorlds) exhausted = true;
+        return !exhausted;
+    }
+
+    /**
+     * A method that checks the number of branches of the tableau.
+     * @param nrBranches The number of branches of the tableau.
+     * @return A boolean variable indicating whether the budget is not exhausted.
+     */
+    public boolean checkBranches(int nrBranches) {
+        if (nrBranches > maxBranches) exhausted = true;
+        return !exhausted;
+    }
+
+    /**
+     * A method that indicates whether any limit of the budget was exceeded.
+     * @return A boolean variable indicating whether the budget is exhausted.
+     */
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    /**
+     * A method that multiplies a limit by a factor without overflowing.
+     * @param limit The limit.
+     * @param factor The factor.
+     * @return The multiplied limit, at most the largest integer.
+     */
+    private static int scale(int limit, int factor) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) limit * factor);
+    }
+
+    /**
+     * Getter for the number of rule applications so far.
+     * @return The number of steps.
+     */
+    public long getSteps() {
+        return steps.get();
+    }
+}
@@ -0,0 +1,105 @@
+package solver;
+
+import generator.connectives.unary.Negation;
+import generator.formula.Formula;
+import io.Serializer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A harness that compares the priority strategies of the solver (see {@link PriorityStrategy}). It solves a fixed
+ * corpus of generated formulas with every strategy and reports the time, the number of branches and the number of
+ * tableaux that exhausted their budget (see {@link SolverBudget}). The corpus is a random sample of a stored level
+ * with a fixed seed, so the generator has to have stored that level before. Formulas without modal operators are left
+ * out, since they are decided by their truth table (see {@link TruthTable}) instead of a tableau.
+ * <p>
+ * Usage: {@code java -cp <jar> solver.StrategyBenchmark [level] [number of formulas] [seed]}, e.g.
+ * {@code solver.StrategyBenchmark 3 200 1} samples 200 formulas with 3 connectives.
+ */
+public class StrategyBenchmark {
+
+    private static final Negation NEGATION = new Negation();
+
+    /**
+     * Private constructor, the benchmark only offers static methods.
+     */
+    private StrategyBenchmark() {}
+
+    /**
+     * The main method of the benchmark.
+     * @param args The level, the number of formulas and the seed of the corpus.
+     */
+    public static void main(String[] args) {
+        int level = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        List<Formula> corpus = corpus(level, size, seed);
+        if (corpus.isEmpty()) {
+            System.err.println("No stored modal formulas with " + level + " connectives, run the generator first.");
+            return;
+        }
+        System.out.printf("%d formulas with %d connectives (seed %d)%n", corpus.size(), level, seed);
+        System.out.printf("%-16s %10s %10s %9s %12s %13s%n", "strategy", "time (ms)", "branches", "timeouts",
+                "tautologies", "disagreements");
+        int[] reference = null;
+        for (String name : PriorityStrategy.NAMES) {
+            int[] verdicts = run(name, PriorityStrategy.forName(name), corpus, reference);
+            if (reference == null) reference = verdicts;
+        }
+    }
+
+    /**
+     * A method that samples the corpus out of the formulas of a stored level that contain a modal operator.
+     * @param level The number of connectives of the formulas.
+     * @param size The number of formulas of the corpus.
+     * @param seed The seed of the random sample.
+     * @return The formulas of the corpus, empty if the level is not stored.
+     */
+    private static List<Formula> corpus(int level, int size, long seed) {
+        List<Formula> formulas = Serializer.openFormulas(level + "_nr_connectives.fml");
+        if (formulas == null) return Collections.emptyList();
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < formulas.size(); i++) indices.add(i);
+        Collections.shuffle(indices, new Random(seed));
+        List<Formula> corpus = new ArrayList<>();
+        for (int i = 0; i < indices.size() && corpus.size() < size; i++) {
+            Formula formula = formulas.get(indices.get(i));
+            if (!TruthTable.isPropositional(formula.getFormulaTree().getRoot())) corpus.add(formula);
+        }
+        return corpus;
+    }
+
+    /**
+     * A method that solves the corpus with a strategy and prints the results.
+     * @param name The name of the strategy.
+     * @param strategy The strategy.
+     * @param corpus The formulas that get solved.
+     * @param reference The verdicts of the first strategy, or null if this is the first strategy.
+     * @return The verdict for every formula: 1 = it is not a tautology, 2 = it is a tautology, 3 = unknown.
+     */
+    private static int[] run(String name, PriorityStrategy strategy, List<Formula> corpus, int[] reference) {
+        int[] verdicts = new int[corpus.size()];
+        long branches = 0;
+        int timeouts = 0;
+        int tautologies = 0;
+        int disagreements = 0;
+        long startTime = System.nanoTime();
+        for (int i = 0; i < corpus.size(); i++) {
+            Formula negatedFormula = new Formula(NEGATION, corpus.get(i));
+            Tableau tableau = new Tableau(negatedFormula, strategy);
+            branches += tableau.getNrBranches();
+            verdicts[i] = negatedFormula.getStatus();
+            if (verdicts[i] == 3) timeouts++;
+            if (verdicts[i] == 2) tautologies++;
+            if (reference != null && verdicts[i] != 3 && reference[i] != 3 && verdicts[i] != reference[i])
+                disagreements++;
+        }
+        long time = (System.nanoTime() - startTime) / 1_000_000;
+        System.out.printf("%-16s %10d %10d %8.1f%% %12d %13s%n", name, time, branches,
+                100.0 * timeouts / corpus.size(), tautologies, reference == null ? "-" : disagreements);
+        return verdicts;
+    }
+}
@@ -1,50 +1,143 @@
 package solver;
 
 import generator.formula.Formula;
+import generator.tree.Node;
+import io.Settings;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * A class that implements a tableau.
+ * A class that implements a tableau. If the setting {@code solver.parallelBranches} is enabled, the branches of the
+ * tableau are solved in parallel on the common fork/join pool.
  */
 @Setter @Getter
 public class Tableau {
 
+    /**
+     * The version of the solver, which has to be increased whenever a change of the solver can change the status that
+     * it gives a formula. Cached results of other versions are discarded (see {@link io.ResultCache}).
+     */
+    public static final int SOLVER_VERSION = 1;
+
+    private static final boolean PARALLEL_BRANCHES = Settings.getBoolean("solver.parallelBranches", false);
+
     private final Formula originalFormula;
+    private final PriorityStrategy priorityStrategy;
     private ArrayList<Branch> branches = new ArrayList<>();
     private boolean tautology = true;
 
+    /**
+     * Indicates whether an open branch (or a branch that exhausted the budget) was found while solving the branches in
+     * parallel, which stops the solving of all other branches.
+     */
+    private volatile boolean openBranchFound = false;
+
+    /**
+     * Indicates whether a branch was found open & complete while solving the branches in parallel, in which case the
+     * formula is no tautology even if another branch exhausted the budget.
+     */
+    private volatile boolean openBranchComplete = false;
+
+    /**
+     * The budget of the tableau, once it is exhausted the tableau is neither known to be open nor closed.
+     */
+    private final SolverBudget budget;
+
+    /**
+     * The number of branches of the tableau, including the closed ones.
+     */
+    private final AtomicInteger nrBranches = new AtomicInteger();
+
     /**
      * Constructor of a tableau. It starts with the negation of the formula that should be solved and starts the solving
      * method.
      * @param formula The negated formula that should be solved.
      */
     public Tableau(Formula formula) {
+        this(formula, PriorityStrategy.DEFAULT);
+    }
+
+    /**
+     * Constructor of a tableau that expands the formulas on its branches in the order of a given strategy.
+     * @param formula The negated formula that should be solved.
+     * @param priorityStrategy The strategy that decides which formula on a branch gets expanded next.
+     */
+    public Tableau(Formula formula, PriorityStrategy priorityStrategy) {
+        this(formula, priorityStrategy, new SolverBudget());
+    }
+
+    /**
+     * Constructor of a tableau that expands the formulas on its branches in the order of a given strategy and stops
+     * once its budget is exhausted.
+     * @param formula The negated formula that should be solved.
+     * @param priorityStrategy The strategy that decides which formula on a branch gets expanded next.
+     * @param budget The budget of the tableau.
+     */
+    public Tableau(Formula formula, PriorityStrategy priorityStrategy, SolverBudget budget) {
         originalFormula = formula;
+        this.priorityStrategy = priorityStrategy;
+        this.budget = budget;
         solve();
     }
 
     /**
      * A method that solves a tableau. It solves the tableau depth-first. If a branch is closed it gets deleted from the
-     * list of branches and the next branch gets solved. If a branch is not closed (indicating that it either timed out
-     * or open & complete) the original formula gets evaluated as being no tautology. If all branches are solved it
-     * means that they all closed and the formula is a tautology.
+     * list of branches and the next branch gets solved. If a branch is open & complete the original formula gets
+     * evaluated as being no tautology, if the budget got exhausted the original formula gets evaluated as unknown. If
+     * all branches are solved it means that they all closed and the formula is a tautology. A formula without modal
+     * operators is decided by its truth table instead (see {@link TruthTable}), without any branches.
      */
     private void solve(){
+        Node root = originalFormula.getFormulaTree().getRoot();
+        if (TruthTable.isPropositional(root)) {
+            originalFormula.setStatus(TruthTable.isSatisfiable(root) ? 1 : 2);
+            return;
+        }
+        if (PARALLEL_BRANCHES) {
+            solveParallel();
+            return;
+        }
         branches.add(new Branch(this, originalFormula));
         while(originalFormula.getStatus() == 0) {
             Branch currentBranch = branches.get(0);
             if (currentBranch.solveBranch()) {
                 branches.remove(currentBranch);
             } else {
-                originalFormula.setStatus(1);
+                originalFormula.setStatus(budget.isExhausted() ? 3 : 1);
             }
             if (branches.isEmpty()) originalFormula.setStatus(2);
         }
     }
 
+    /**
+     * A method that solves a tableau by solving each branch in its own fork/join task. Branches that get forked off
+     * during solving are solved by other threads of the pool. As soon as one branch is open or the budget is
+     * exhausted, all other branches stop and the original formula gets evaluated as being no tautology or unknown.
+     */
+    private void solveParallel() {
+        boolean closed = ForkJoinPool.commonPool().invoke(new BranchTask(new Branch(this, originalFormula)));
+        originalFormula.setStatus(closed ? 2 : openBranchComplete || !budget.isExhausted() ? 1 : 3);
+    }
+
+    /**
+     * Getter for the number of branches of the tableau.
+     * @return The number of branches that were created while solving the tableau.
+     */
+    public int getNrBranches() {
+        return nrBranches.get();
+    }
+
+    /**
+     * A method that counts a new branch of the tableau and checks it against the budget.
+     */
+    void countBranch() {
+        budget.checkBranches(nrBranches.incrementAndGet());
+    }
+
     /**
      * A method that adds a branch to the tableau.
      * @param branch The branch that gets added to the tableau.
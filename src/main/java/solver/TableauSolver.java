@@ -1,26 +1,77 @@
 package solver;
 
-import generator.formula.Agent;
 import generator.formula.Formula;
 import generator.formula.FormulaGenerator;
+import generator.tree.Node;
 
-import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import generator.connectives.unary.Negation;
 import io.Publisher;
+import io.ResultCache;
 import io.Serializer;
+import io.Settings;
 import lombok.Getter;
 import lombok.SneakyThrows;
 
 /**
- * A class implementing the tableau solver.
+ * A class implementing the tableau solver. The tableaux are solved by a pool of workers, the number of tableaux that
+ * are solved concurrently is set by the setting {@code solver.workers} (default 1).
+ * <p>
+ * A formula whose tableau exhausts its budget (see {@link SolverBudget}) is parked in a retry queue. The parked
+ * formulas are only solved again while there are no generated formulas left to solve, each time with a budget that is
+ * {@code solver.retryFactor} (default 4) times larger, until they are solved or were retried {@code solver.retries}
+ * (default 2) times.
+ * <p>
+ * The results are kept in a result cache (see {@link ResultCache}), which holds the {@code solver.resultCacheSize}
+ * (default 100000) most recently used results in memory and all results on disk. A formula whose canonical form was
+ * solved before, also before a restart, is not solved again, unless it exhausted a smaller budget earlier in the same
+ * run.
  */
 @Getter
 public class TableauSolver implements Runnable {
 
     private final FormulaGenerator generator;
 
-    private ArrayList<Formula> tautologies = new ArrayList<>();
+    private final TautologyStore tautologies = new TautologyStore();
+
+    private final int nrWorkers = Math.max(1, Settings.getInt("solver.workers", 1));
+    private final int maxRetries = Math.max(0, Settings.getInt("solver.retries", 2));
+    private final int retryFactor = Math.max(1, Settings.getInt("solver.retryFactor", 4));
+    private final AtomicBoolean posting = new AtomicBoolean(false);
+    private final ResultCache results = new ResultCache(Math.max(1, Settings.getInt("solver.resultCacheSize", 100000)),
+            Tableau.SOLVER_VERSION);
+
+    /**
+     * The formulas that exhausted their budget and wait to be solved again, the formulas with the fewest attempts
+     * come first.
+     */
+    private final PriorityBlockingQueue<Retry> retries = new PriorityBlockingQueue<>(11,
+            Comparator.comparingInt(Retry::getAttempt));
+
+    /**
+     * A formula in the retry queue together with the number of times it was solved before.
+     */
+    @Getter
+    private static final class Retry {
+
+        private final Formula formula;
+        private final int attempt;
+
+        /**
+         * Constructor of a formula in the retry queue.
+         * @param formula The formula that gets solved again.
+         * @param attempt The number of times the formula was solved before.
+         */
+        Retry(Formula formula, int attempt) {
+            this.formula = formula;
+            this.attempt = attempt;
+        }
+    }
 
     /**
      * Constructor of the tableau solver.
@@ -32,30 +83,37 @@ public class TableauSolver implements Runnable {
 
     /**
      * The main method of the tableau solver. It runs when there are still formulas that can be evaluated and sleeps
-     * otherwise. It chooses a random formula from the generated formulas and evaluates whether it is a tautology. If
-     * that is the case it gets added to a tautology list. When the first tautology gets stored in that list, the
-     * Twitter publisher gets started.
+     * otherwise. It chooses random formulas from the generated formulas and hands each of them to a free worker that
+     * evaluates whether it is a tautology. A new formula is only chosen once a worker is free, so formulas that are not
+     * being solved stay in their files. If there are no generated formulas left, the free worker gets a formula from
+     * the retry queue instead. Whenever the solver waits for formulas, the new results get written to the result cache.
      */
     @SneakyThrows
     @Override
     public void run() {
+        ForkJoinPool workers = new ForkJoinPool(nrWorkers);
+        Semaphore freeWorkers = new Semaphore(nrWorkers);
         boolean formulasToSolve = checkFormulas();
-        boolean posting = false;
         while (formulasToSolve) {
+            freeWorkers.acquire();
             Formula currentFormula = generator.chooseRandomFormula();
-            if (currentFormula != null) {
-                solveTableau(currentFormula);
-                if (currentFormula.getStatus() == 2) tautologies.add(currentFormula);
-                currentFormula.getAgents().forEach(Agent::reset);
-                if (tautologies.size() > 0 && !posting) {
-                    posting = true;
-                    startPublisher();
-                }
+            Retry retry = currentFormula == null ? retries.poll() : new Retry(currentFormula, 0);
+            if (retry != null) {
+                workers.execute(() -> {
+                    try {
+                        solve(retry.getFormula(), retry.getAttempt());
+                    } finally {
+                        freeWorkers.release();
+                    }
+                });
             } else {
+                freeWorkers.release();
+                results.flush();
                 Thread.sleep(100);
             }
             formulasToSolve = checkFormulas();
             if (!formulasToSolve) {
+                results.flush();
                 while (!formulasToSolve) {
                     Thread.sleep(100);
                     formulasToSolve = checkFormulas();
@@ -65,19 +123,33 @@ public class TableauSolver implements Runnable {
     }
 
     /**
-     * A method that checks whether there are still formulas that have been generated but not solved yet.
+     * A method that evaluates whether a formula is a tautology. If that is the case it gets added to the tautology
+     * store. When the first tautology gets stored, the Twitter publisher gets started. If the tableau exhausted its
+     * budget, the formula gets parked in the retry queue unless it was retried often enough.
+     * @param formula The formula that should be evaluated.
+     * @param attempt The number of times the formula was solved before.
+     */
+    private void solve(Formula formula, int attempt) {
+        solveTableau(formula, attempt);
+        if (formula.getStatus() == 2) {
+            tautologies.add(formula);
+            if (!posting.getAndSet(true)) startPublisher();
+        } else if (formula.getStatus() == 3 && attempt < maxRetries) {
+            retries.add(new Retry(formula, attempt + 1));
+        }
+    }
+
+    /**
+     * A method that checks whether there are still formulas that have been generated but not solved yet, or formulas
+     * that wait to be solved again.
      * @return A boolean variable indicating whether there are formulas left.
      */
     private boolean checkFormulas() {
+        if (!retries.isEmpty()) return true;
         int maxConnectives = 1;
         for (int i = 0; i < maxConnectives; i ++) {
-            String fileToRun = i + "_nr_connectives_solve.ser";
-            ArrayList<Formula> formulas = Serializer.loadFormulas(fileToRun);
-            if (formulas != null) {
-                if (formulas.size() != 0) {
-                    return true;
-                }
-            }
+            String fileToRun = i + "_nr_connectives_solve.fml";
+            if (Serializer.countFormulas(fileToRun) > 0) return true;
             if (maxConnectives <= generator.getNrConnectives()) maxConnectives++;
         }
         return false;
@@ -94,12 +166,31 @@ public class TableauSolver implements Runnable {
 
     /**
      * This method starts a tableau by negating the formula that should be evaluated. After the negated formula was
-     * evaluated the status of the original formula gets adapted.
+     * evaluated the status of the original formula gets adapted and stored in the result cache. If the result cache
+     * already has the result of the formula, the tableau is skipped. A formula without modal operators is decided by
+     * its truth table right away, which is cheaper than looking it up in or adding it to the result cache.
      * @param formula The formula that should be evaluated on whether it is a tautology.
+     * @param attempt The number of times the formula was solved before, every attempt multiplies the budget.
      */
-    private void solveTableau(Formula formula) {
+    private void solveTableau(Formula formula, int attempt) {
+        Node root = formula.getFormulaTree().getRoot();
+        if (TruthTable.isPropositional(root)) {
+            formula.setStatus(TruthTable.isTautology(root) ? 2 : 1);
+            return;
+        }
+        int factor = 1;
+        for (int i = 0; i < attempt; i++) factor *= retryFactor;
+        ResultCache.Result result = results.get(formula);
+        if (result != null && (result.getStatus() != 3 || result.getFactor() >= factor)) {
+            formula.setStatus(result.getStatus());
+            return;
+        }
+        long startTime = System.nanoTime();
+        SolverBudget budget = new SolverBudget(factor);
         Formula negatedFormula = new Formula(new Negation(), formula);
-        new Tableau(negatedFormula);
+        new Tableau(negatedFormula, PriorityStrategy.DEFAULT, budget);
         formula.setStatus(negatedFormula.getStatus());
+        results.put(formula, new ResultCache.Result(formula.getStatus(), factor, budget.getSteps(),
+                (System.nanoTime() - startTime) / 1_000_000));
     }
 }
@@ -0,0 +1,39 @@
+package solver;
+
+import generator.formula.Formula;
+
+import java.util.ArrayList;
+
+/**
+ * A thread-safe store of the tautologies found by the tableau solver. The solver workers add tautologies to it and the
+ * Twitter publisher takes them out again.
+ */
+public class TautologyStore {
+
+    private final ArrayList<Formula> tautologies = new ArrayList<>();
+
+    /**
+     * A method that adds a tautology to the store.
+     * @param tautology The formula that was evaluated as a tautology.
+     */
+    public synchronized void add(Formula tautology) {
+        tautologies.add(tautology);
+    }
+
+    /**
+     * Getter for the number of stored tautologies.
+     * @return The number of tautologies in the store.
+     */
+    public synchronized int size() {
+        return tautologies.size();
+    }
+
+    /**
+     * A method that removes a random tautology from the store.
+     * @return A random tautology or null if the store is empty.
+     */
+    public synchronized Formula takeRandom() {
+        if (tautologies.isEmpty()) return null;
+        return tautologies.remove((int)(Math.random() * tautologies.size()));
+    }
+}
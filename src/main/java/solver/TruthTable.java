@@ -0,0 +1,83 @@
+package solver;
+
+import generator.connectives.TruthFunctional;
+import generator.formula.PropAtom;
+import generator.tree.AtomNode;
+import generator.tree.Node;
+
+/**
+ * A class that decides formulas without modal operators by their truth table instead of a tableau. The truth table is
+ * evaluated bit-parallel: every valuation of the propositional atoms is one bit of an integer, so with three atoms a
+ * formula is evaluated for all 8 valuations at once with a single bitwise operation per connective.
+ */
+public class TruthTable {
+
+    private static final int NR_VALUATIONS = 1 << PropAtom.values().length;
+
+    /**
+     * The bit mask of all valuations.
+     */
+    private static final int ALL_VALUATIONS = (int) ((1L << NR_VALUATIONS) - 1);
+
+    /**
+     * The truth values of every propositional atom, one bit per valuation: the atom is true in a valuation if the bit
+     * of the atom is set in the number of the valuation.
+     */
+    private static final int[] ATOM_VALUES = new int[PropAtom.values().length];
+
+    static {
+        for (int valuation = 0; valuation < NR_VALUATIONS; valuation++) {
+            for (int atom = 0; atom < ATOM_VALUES.length; atom++) {
+                if ((valuation >> atom & 1) != 0) ATOM_VALUES[atom] |= 1 << valuation;
+            }
+        }
+    }
+
+    /**
+     * Private constructor, the truth table only offers static methods.
+     */
+    private TruthTable() {}
+
+    /**
+     * A method that indicates whether a formula only consists of atoms and truth-functional connectives, so it can be
+     * decided by its truth table.
+     * @param root The root of the formula.
+     * @return A boolean variable indicating whether the formula has no modal operators.
+     */
+    public static boolean isPropositional(Node root) {
+        return root.getModalDepth() == 0;
+    }
+
+    /**
+     * A method that indicates whether a formula without modal operators is true in at least one valuation.
+     * @param root The root of the formula.
+     * @return A boolean variable indicating whether the formula is satisfiable.
+     */
+    public static boolean isSatisfiable(Node root) {
+        return evaluate(root) != 0;
+    }
+
+    /**
+     * A method that indicates whether a formula without modal operators is true in every valuation.
+     * @param root The root of the formula.
+     * @return A boolean variable indicating whether the formula is a tautology.
+     */
+    public static boolean isTautology(Node root) {
+        return evaluate(root) == ALL_VALUATIONS;
+    }
+
+    /**
+     * A method that evaluates a formula without modal operators in all valuations.
+     * @param node The root of the formula.
+     * @return The truth values of the formula, one bit per valuation.
+     * @throws IllegalArgumentException An exception that is thrown if the formula contains a modal operator.
+     */
+    public static int evaluate(Node node) {
+        if (node instanceof AtomNode atom) return ATOM_VALUES[atom.getAtom().ordinal()];
+        if (!(node.getValue() instanceof TruthFunctional connective))
+            throw new IllegalArgumentException(node.printValue() + " is not truth-functional");
+        int left = evaluate(node.getLeft());
+        int right = node.getRight() == null ? 0 : evaluate(node.getRight());
+        return connective.evaluate(left, right) & ALL_VALUATIONS;
+    }
+}